@@ -0,0 +1,53 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.benchmarks;
+
+import es.danirod.rectball.model.Board;
+import es.danirod.rectball.model.RandomSource;
+
+/**
+ * Boards used by the benchmarks. Boards are always created from a fixed
+ * seed so that every run measures the same boards.
+ */
+final class BenchmarkBoards {
+
+    /** Seed for every generator used by the benchmarks. */
+    static final long SEED = 0x5EC7BA11L;
+
+    private BenchmarkBoards() {
+
+    }
+
+    /**
+     * Create a random board that only uses some of the colors. Fewer colors
+     * means more combinations, which changes how the finder behaves.
+     * @param size  the size of the board.
+     * @param colors  how many colors to use, up to the number of colors.
+     * @param random  the generator for the colors.
+     * @return  the board.
+     */
+    static Board create(int size, int colors, RandomSource random) {
+        Board board = new Board(size, random);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                board.setColorIndex(x, y, random.nextInt(colors));
+            }
+        }
+        return board;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.benchmarks;
+
+import es.danirod.rectball.model.Board;
+import es.danirod.rectball.model.Bounds;
+import es.danirod.rectball.model.GameState;
+import es.danirod.rectball.model.GenerationConstraints;
+import es.danirod.rectball.model.RandomSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board generation: randomizing the whole board, regenerating the region
+ * of a combination like the game does after every move, and resetting the
+ * board of a game until it has a combination.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    @Param({"6", "16", "64", "256"})
+    public int size;
+
+    private Board board;
+
+    private GameState state;
+
+    /** A region of about a third of the board, in the middle of it. */
+    private int region;
+
+    private GenerationConstraints constraints;
+
+    @Setup
+    public void setUp() {
+        RandomSource random = new RandomSource(BenchmarkBoards.SEED);
+        board = new Board(size, random.split());
+        board.randomize();
+        state = new GameState(size, random.split());
+        state.reset();
+
+        int from = size / 3, to = Math.max(from + 1, 2 * size / 3);
+        region = Bounds.pack(from, from, Math.min(to, size - 1), Math.min(to, size - 1));
+        constraints = new GenerationConstraints().excluding(region);
+    }
+
+    @Benchmark
+    public Board randomizeFull() {
+        board.randomize();
+        return board;
+    }
+
+    @Benchmark
+    public boolean randomizeRegion() {
+        return board.randomize(region, constraints);
+    }
+
+    @Benchmark
+    public GameState resetBoard() {
+        state.resetBoard();
+        return state;
+    }
+}
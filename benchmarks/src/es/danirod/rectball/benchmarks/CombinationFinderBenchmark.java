@@ -0,0 +1,98 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.benchmarks;
+
+import es.danirod.rectball.model.Board;
+import es.danirod.rectball.model.Bounds;
+import es.danirod.rectball.model.CombinationFinder;
+import es.danirod.rectball.model.CombinationIndex;
+import es.danirod.rectball.model.GenerationConstraints;
+import es.danirod.rectball.model.RandomSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combination queries on a fixed board: the old finder object, the static
+ * queries the game uses and keeping the combination index up to date after
+ * a region changes. Boards bigger than 64 are left out: a 256x256 board
+ * has hundreds of millions of combinations, too many to list them all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CombinationFinderBenchmark {
+
+    @Param({"6", "16", "64"})
+    public int size;
+
+    @Param({"2", "4"})
+    public int colors;
+
+    private Board board;
+
+    private Board indexedBoard;
+
+    private CombinationIndex index;
+
+    private int region;
+
+    private GenerationConstraints constraints;
+
+    @Setup
+    public void setUp() {
+        RandomSource random = new RandomSource(BenchmarkBoards.SEED);
+        board = BenchmarkBoards.create(size, colors, random);
+        indexedBoard = new Board(size, random.split());
+        indexedBoard.randomize();
+        index = new CombinationIndex(indexedBoard);
+
+        int corner = Math.max(0, size / 2 - 1);
+        region = Bounds.pack(corner, corner, Math.min(corner + 1, size - 1), Math.min(corner + 1, size - 1));
+        constraints = new GenerationConstraints();
+    }
+
+    @Benchmark
+    public Bounds finderGetCombination() {
+        return new CombinationFinder(board).getCombination();
+    }
+
+    @Benchmark
+    public boolean hasAnyCombination() {
+        return CombinationFinder.hasAnyCombination(board);
+    }
+
+    @Benchmark
+    public int[] findAll() {
+        return CombinationFinder.findAll(board);
+    }
+
+    @Benchmark
+    public int bestCombination() {
+        return CombinationFinder.bestCombination(board);
+    }
+
+    @Benchmark
+    public int indexAfterRegionChange() {
+        indexedBoard.randomize(region, constraints);
+        return index.getCombinationCount();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.benchmarks;
+
+import es.danirod.rectball.model.Ball;
+import es.danirod.rectball.model.Board;
+import es.danirod.rectball.model.Bounds;
+import es.danirod.rectball.model.CombinationFinder;
+import es.danirod.rectball.model.Coordinate;
+import es.danirod.rectball.model.RandomSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of the four balls selected by the player, both a valid and an
+ * invalid selection, using packed coordinates and using a list of balls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectionBenchmark {
+
+    @Param({"6", "64", "256"})
+    public int size;
+
+    @Param({"2", "4"})
+    public int colors;
+
+    private Board board;
+
+    /** Packed coordinates of the corners of a valid combination. */
+    private int[] valid;
+
+    /** Packed coordinates of four balls in three columns, never a combination. */
+    private int[] invalid;
+
+    private List<Ball> validBalls;
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkBoards.create(size, colors, new RandomSource(BenchmarkBoards.SEED));
+        while (!CombinationFinder.hasAnyCombination(board)) {
+            board.randomize();
+        }
+
+        int bounds = CombinationFinder.bestCombination(board);
+        int minX = Bounds.minX(bounds), minY = Bounds.minY(bounds);
+        int maxX = Bounds.maxX(bounds), maxY = Bounds.maxY(bounds);
+        valid = new int[] {
+                Coordinate.pack(minX, minY), Coordinate.pack(maxX, minY),
+                Coordinate.pack(minX, maxY), Coordinate.pack(maxX, maxY)
+        };
+        invalid = new int[] {
+                Coordinate.pack(0, 0), Coordinate.pack(1, 0),
+                Coordinate.pack(2, 0), Coordinate.pack(0, 1)
+        };
+
+        validBalls = new ArrayList<>();
+        validBalls.add(board.getBall(minX, minY));
+        validBalls.add(board.getBall(maxX, minY));
+        validBalls.add(board.getBall(minX, maxY));
+        validBalls.add(board.getBall(maxX, maxY));
+    }
+
+    @Benchmark
+    public boolean packedValid() {
+        return board.selection(valid[0], valid[1], valid[2], valid[3]);
+    }
+
+    @Benchmark
+    public boolean packedInvalid() {
+        return board.selection(invalid[0], invalid[1], invalid[2], invalid[3]);
+    }
+
+    @Benchmark
+    public boolean listValid() {
+        return board.selection(validBalls);
+    }
+}
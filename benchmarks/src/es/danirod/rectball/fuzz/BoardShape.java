@@ -0,0 +1,104 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.fuzz;
+
+import es.danirod.rectball.model.Board;
+import es.danirod.rectball.model.RandomSource;
+
+/**
+ * Kinds of boards generated by the fuzzer. Besides uniformly random boards
+ * there are boards built to stress the corner cases of the finders: boards
+ * full of combinations, boards with regular patterns and boards where a
+ * color is very rare.
+ */
+enum BoardShape {
+
+    /** Every ball has a random color. */
+    RANDOM {
+        @Override
+        int color(int x, int y, int colors, RandomSource random) {
+            return random.nextInt(colors);
+        }
+    },
+
+    /** Every ball has the same color, so every rectangle is a combination. */
+    SINGLE_COLOR {
+        @Override
+        int color(int x, int y, int colors, RandomSource random) {
+            return colors - 1;
+        }
+    },
+
+    /** Two alternating colors. */
+    CHECKERBOARD {
+        @Override
+        int color(int x, int y, int colors, RandomSource random) {
+            return (x + y) % 2 == 0 ? 0 : colors - 1;
+        }
+    },
+
+    /** Every row cycles through the colors, shifted from the row below. */
+    DIAGONAL {
+        @Override
+        int color(int x, int y, int colors, RandomSource random) {
+            return (x + 2 * y) % colors;
+        }
+    },
+
+    /** Almost every ball has the same color, with a few random balls. */
+    SPARSE {
+        @Override
+        int color(int x, int y, int colors, RandomSource random) {
+            return random.nextInt(32) == 0 ? random.nextInt(colors) : 0;
+        }
+    },
+
+    /** Random colors, except for one color that is very rare. */
+    RARE_COLOR {
+        @Override
+        int color(int x, int y, int colors, RandomSource random) {
+            if (colors > 1 && random.nextInt(32) != 0) {
+                return 1 + random.nextInt(colors - 1);
+            }
+            return 0;
+        }
+    };
+
+    /**
+     * Get the color of a ball.
+     * @param colors  how many colors can be used.
+     * @return  the color index for that ball.
+     */
+    abstract int color(int x, int y, int colors, RandomSource random);
+
+    /**
+     * Paint a board using this shape. The colors are also written to a
+     * plain array, so that the reference doesn't depend on the storage of
+     * the board it is checking.
+     * @param board  the board to paint.
+     * @param cells  receives the color of every ball, as cells[x][y].
+     */
+    void paint(Board board, int[][] cells, int colors, RandomSource random) {
+        for (int y = 0; y < board.getSize(); y++) {
+            for (int x = 0; x < board.getSize(); x++) {
+                cells[x][y] = color(x, y, colors, random);
+                board.setColorIndex(x, y, cells[x][y]);
+            }
+        }
+    }
+}
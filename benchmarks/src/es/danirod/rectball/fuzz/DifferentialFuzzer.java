@@ -0,0 +1,556 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.fuzz;
+
+import es.danirod.rectball.model.BallColor;
+import es.danirod.rectball.model.Board;
+import es.danirod.rectball.model.BoardSnapshot;
+import es.danirod.rectball.model.Bounds;
+import es.danirod.rectball.model.CombinationCache;
+import es.danirod.rectball.model.CombinationCursor;
+import es.danirod.rectball.model.CombinationFinder;
+import es.danirod.rectball.model.CombinationIndex;
+import es.danirod.rectball.model.Coordinate;
+import es.danirod.rectball.model.GenerationConstraints;
+import es.danirod.rectball.model.PackedBoards;
+import es.danirod.rectball.model.RandomSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Differential fuzzer for the model engine. It generates random and
+ * adversarial boards (see {@link BoardShape}) and checks that every query
+ * of the optimized engine agrees with the {@link ReferenceFinder}: the
+ * combination list, the cursor, the index, the best combinations, the
+ * selection check, the generator constraints, the combination cache, the
+ * snapshot format and the packed storage.
+ *
+ * The reference works on a plain array of colors that is painted next to
+ * the board, and stored boards are compared ball by ball against that
+ * array, so bugs in the storage of the board are caught too.
+ *
+ * The reference is slow, so most boards only go through the quick checks:
+ * the cursor against the visitor, the existence check, the best
+ * combination, the selection check and the colors of the board. One board
+ * in every few, chosen at random, goes through every check against the
+ * reference, and only those boards can be big enough for the parallel
+ * finder. Checking every board against the reference is still possible
+ * by setting that interval to one.
+ *
+ * Every worker thread has its own generator split from the seed, so a
+ * failure can be replayed with the same seed and number of threads. When
+ * a check fails, the fuzzer stops and prints the snapshot of the board.
+ */
+public class DifferentialFuzzer {
+
+    /** Boards bigger than this are only generated with random colors. */
+    private static final int MAX_ADVERSARIAL_SIZE = 16;
+
+    /** By default, one board in this many is checked against the reference. */
+    public static final int DEFAULT_FULL_INTERVAL = 256;
+
+    /** Workers report how many boards they have checked this often. */
+    private static final int REPORT_INTERVAL = 1024;
+
+    /** How many summaries does the cache of every worker keep. */
+    private static final int CACHE_CAPACITY = 64;
+
+    /** Boards of this size and bigger go through the parallel finder. */
+    private static final int MIN_PARALLEL_SIZE = CombinationFinder.PARALLEL_THRESHOLD;
+
+    private final int threads;
+
+    private final RandomSource random;
+
+    private final int fullInterval;
+
+    private final AtomicLong checkedBoards = new AtomicLong();
+
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    public DifferentialFuzzer(int threads, RandomSource random) {
+        this(threads, random, DEFAULT_FULL_INTERVAL);
+    }
+
+    /**
+     * Create a fuzzer.
+     * @param threads  how many worker threads to use.
+     * @param random  the generator every worker is split from.
+     * @param fullInterval  one board in this many, on average, is checked
+     *                      against the reference. Use 1 to check all of them.
+     */
+    public DifferentialFuzzer(int threads, RandomSource random, int fullInterval) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + threads);
+        }
+        if (fullInterval < 1) {
+            throw new IllegalArgumentException("Invalid full check interval: " + fullInterval);
+        }
+        this.threads = threads;
+        this.random = random;
+        this.fullInterval = fullInterval;
+    }
+
+    /** @return how many boards have been checked so far. */
+    public long getCheckedBoards() {
+        return checkedBoards.get();
+    }
+
+    /**
+     * Check many boards, splitting them between the worker threads.
+     * @param boards  how many boards to check.
+     * @throws IllegalStateException  if the engine and the reference disagree.
+     */
+    public void run(long boards) {
+        List<Callable<Void>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            final long share = boards / threads + (i < boards % threads ? 1 : 0);
+            final Worker worker = new Worker(random.split(), fullInterval);
+            workers.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    // Boards are counted in groups so that the threads don't
+                    // fight over the counter.
+                    int unreported = 0;
+                    try {
+                        for (long board = 0; board < share && !failed.get(); board++) {
+                            worker.checkBoard();
+                            if (++unreported == REPORT_INTERVAL) {
+                                checkedBoards.addAndGet(unreported);
+                                unreported = 0;
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        checkedBoards.addAndGet(unreported);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<Void> result : executor.invokeAll(workers)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Fuzzing interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalStateException) {
+                throw (IllegalStateException) e.getCause();
+            }
+            throw new IllegalStateException("Fuzzing failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Everything a thread needs to check boards without sharing state. */
+    private static class Worker {
+
+        private final RandomSource random;
+
+        private final int fullInterval;
+
+        /** Boards, colors, indices and storage are reused for every size. */
+        private final Board[] boards = new Board[Board.MAX_SIZE + 1];
+
+        private final int[][][] cells = new int[Board.MAX_SIZE + 1][][];
+
+        private final CombinationIndex[] indices = new CombinationIndex[Board.MAX_SIZE + 1];
+
+        private final CombinationCursor[] cursors = new CombinationCursor[Board.MAX_SIZE + 1];
+
+        private final PackedBoards[] packed = new PackedBoards[Board.MAX_SIZE + 1];
+
+        /** Receives the boards that are read back from the storage. */
+        private final Board[] copies = new Board[Board.MAX_SIZE + 1];
+
+        private final CombinationCache cache = new CombinationCache(CACHE_CAPACITY);
+
+        private final GenerationConstraints constraints = new GenerationConstraints();
+
+        /** Combinations found by the cursor. */
+        private int[] walked = new int[64];
+
+        private int walkedCount;
+
+        /**
+         * How many combinations did the visitor find, and the sum of their
+         * hashes. The sum doesn't depend on the order, so the visitor and
+         * the cursor can be compared without sorting their combinations.
+         */
+        private int visitedCount;
+
+        private long visitedSum;
+
+        /** Receives the combinations walked by the engine. */
+        private final CombinationFinder.CombinationVisitor visitor = new CombinationFinder.CombinationVisitor() {
+            @Override
+            public boolean visit(int bounds) {
+                visitedCount++;
+                visitedSum += mix(bounds);
+                return true;
+            }
+        };
+
+        /** Balls used to check the selection. */
+        private final int[] balls = new int[4];
+
+        Worker(RandomSource random, int fullInterval) {
+            this.random = random;
+            this.fullInterval = fullInterval;
+        }
+
+        void checkBoard() {
+            // Mostly small boards like the ones in the game, some medium
+            // boards and, among the boards checked against the reference,
+            // a few boards big enough for the parallel finder. Big boards
+            // always use every color, or they would have millions of
+            // combinations.
+            boolean full = fullInterval == 1 || random.nextInt(fullInterval) == 0;
+            int kind = random.nextInt(1000);
+            int size, colors;
+            BoardShape shape;
+            if (kind < 980 || (!full && kind >= 998)) {
+                size = 1 + random.nextInt(12);
+                shape = BoardShape.values()[random.nextInt(BoardShape.values().length)];
+                colors = 1 + random.nextInt(4);
+            } else if (kind < 998) {
+                size = 13 + random.nextInt(MAX_ADVERSARIAL_SIZE - 12);
+                shape = BoardShape.values()[random.nextInt(BoardShape.values().length)];
+                colors = 1 + random.nextInt(4);
+            } else {
+                size = MIN_PARALLEL_SIZE + random.nextInt(8);
+                shape = BoardShape.RANDOM;
+                colors = 4;
+            }
+
+            if (boards[size] == null) {
+                boards[size] = new Board(size, random.split());
+                boards[size].randomize();
+                indices[size] = new CombinationIndex(boards[size]);
+                cursors[size] = new CombinationCursor(boards[size]);
+                cells[size] = new int[size][size];
+                packed[size] = new PackedBoards(size, 2);
+                copies[size] = new Board(size);
+            }
+            Board board = boards[size];
+            shape.paint(board, cells[size], colors, random);
+
+            try {
+                checkCells(board, cells[size], "board");
+                checkWalks(board, cells[size], cursors[size]);
+                checkSelection(board, cells[size]);
+                if (full) {
+                    int[] expected = ReferenceFinder.findAll(cells[size], size);
+                    int[] walkedBounds = ReferenceFinder.sortedUnique(Arrays.copyOf(walked, walkedCount));
+                    check(walkedBounds.length == walkedCount && Arrays.equals(walkedBounds, expected),
+                            "cursor returned " + walkedCount + " combinations, expected " + expected.length);
+                    checkQueries(board, indices[size], expected);
+                    checkCache(board, expected);
+                    checkSnapshot(board, cells[size]);
+                    checkPackedBoards(board, cells[size]);
+                    if (size <= MAX_ADVERSARIAL_SIZE) {
+                        checkGenerator(board, cells[size]);
+                    }
+                }
+            } catch (IllegalStateException e) {
+                throw new IllegalStateException(e.getMessage() + " on " + shape + " board "
+                        + toHex(BoardSnapshot.encode(board)), e);
+            }
+        }
+
+        /**
+         * Quick checks, done on every board: the cursor against the visitor,
+         * the existence check and the best combination. Every combination
+         * is checked against the colors, but only the full check makes sure
+         * that none is missing. The combinations of the cursor are left in
+         * the walked array.
+         */
+        private void checkWalks(Board board, int[][] cells, CombinationCursor cursor) {
+            walkedCount = 0;
+            long walkedSum = 0;
+            int biggest = 0;
+            cursor.reset();
+            while (cursor.next()) {
+                int bounds = cursor.getBounds();
+                check(ReferenceFinder.isCombination(cells, bounds), "cursor returned a wrong combination");
+                if (walkedCount == walked.length) {
+                    walked = Arrays.copyOf(walked, walkedCount * 2);
+                }
+                walked[walkedCount++] = bounds;
+                walkedSum += mix(bounds);
+                biggest = Math.max(biggest, ReferenceFinder.area(bounds));
+            }
+
+            visitedCount = 0;
+            visitedSum = 0;
+            CombinationFinder.forEach(board, visitor);
+            check(visitedCount == walkedCount && visitedSum == walkedSum, "cursor and visitor disagree");
+            check(CombinationFinder.hasAnyCombination(board) == (walkedCount > 0), "hasAnyCombination");
+
+            int best = CombinationFinder.bestCombination(board);
+            if (walkedCount == 0) {
+                check(best == Bounds.NONE, "bestCombination found something");
+            } else {
+                check(ReferenceFinder.isCombination(cells, best) && ReferenceFinder.area(best) == biggest,
+                        "bestCombination");
+            }
+        }
+
+        private void checkQueries(Board board, CombinationIndex index, int[] expected) {
+            int[] all = CombinationFinder.findAll(board);
+            check(all.length == expected.length, "findAll returned " + all.length
+                    + " combinations, expected " + expected.length);
+            check(Arrays.equals(ReferenceFinder.sortedUnique(all), expected),
+                    "findAll returned wrong or duplicated combinations");
+
+            check(new CombinationFinder(board).getPossibleBounds().size() == expected.length,
+                    "getPossibleBounds");
+
+            check(index.getCombinationCount() == expected.length, "index counted "
+                    + index.getCombinationCount() + " combinations");
+            check(index.hasCombinations() == (expected.length > 0), "index hasCombinations");
+            int first = index.getCombination();
+            check(expected.length == 0 ? first == Bounds.NONE : ReferenceFinder.contains(expected, first),
+                    "index getCombination");
+
+            // The biggest combinations, compared by area because ties can
+            // be reported in any order.
+            int[] areas = new int[expected.length];
+            for (int i = 0; i < expected.length; i++) {
+                areas[i] = ReferenceFinder.area(expected[i]);
+            }
+            Arrays.sort(areas);
+            int requested = 1 + random.nextInt(5);
+            int[] top = CombinationFinder.bestCombinations(board, requested);
+            check(top.length == Math.min(requested, expected.length), "bestCombinations length");
+            check(ReferenceFinder.sortedUnique(top.clone()).length == top.length,
+                    "bestCombinations returned duplicates");
+            for (int i = 0; i < top.length; i++) {
+                check(ReferenceFinder.contains(expected, top[i])
+                        && ReferenceFinder.area(top[i]) == areas[areas.length - 1 - i],
+                        "bestCombinations area " + i);
+            }
+        }
+
+        private void checkCache(Board board, int[] expected) {
+            // Checkerboards and single color boards repeat often, so some
+            // of these are hits and some are misses.
+            long hits = cache.getHits();
+            CombinationCache.Summary summary = cache.get(board);
+            check(Arrays.equals(ReferenceFinder.sortedUnique(summary.getCombinations().clone()), expected),
+                    "cache returned wrong combinations");
+            check(summary.getCount() == expected.length, "cache counted " + summary.getCount() + " combinations");
+            int best = summary.getBestCombination();
+            if (expected.length == 0) {
+                check(best == Bounds.NONE, "cache found a best combination");
+            } else {
+                int biggest = 0;
+                for (int bounds : expected) {
+                    biggest = Math.max(biggest, ReferenceFinder.area(bounds));
+                }
+                check(ReferenceFinder.contains(expected, best) && ReferenceFinder.area(best) == biggest,
+                        "cache best combination");
+            }
+            check(cache.get(board) == summary && cache.getHits() > hits, "cache missed a stored board");
+        }
+
+        private void checkSelection(Board board, int[][] cells) {
+            int size = board.getSize();
+            if (walkedCount > 0) {
+                // The corners of a combination, in any order, are valid.
+                int bounds = walked[random.nextInt(walkedCount)];
+                balls[0] = Coordinate.pack(Bounds.minX(bounds), Bounds.minY(bounds));
+                balls[1] = Coordinate.pack(Bounds.maxX(bounds), Bounds.minY(bounds));
+                balls[2] = Coordinate.pack(Bounds.minX(bounds), Bounds.maxY(bounds));
+                balls[3] = Coordinate.pack(Bounds.maxX(bounds), Bounds.maxY(bounds));
+                shuffle(balls);
+                check(board.selection(balls[0], balls[1], balls[2], balls[3]), "valid selection rejected");
+            }
+
+            // Four random balls are valid if they are the corners of a combination.
+            int minX = size, minY = size, maxX = -1, maxY = -1;
+            for (int i = 0; i < 4; i++) {
+                int x = random.nextInt(size), y = random.nextInt(size);
+                balls[i] = Coordinate.pack(x, y);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+            boolean corners = minX < maxX && minY < maxY;
+            for (int i = 0; i < 4; i++) {
+                int x = Coordinate.unpackX(balls[i]), y = Coordinate.unpackY(balls[i]);
+                corners &= (x == minX || x == maxX) && (y == minY || y == maxY);
+                for (int j = 0; j < i; j++) {
+                    corners &= balls[i] != balls[j];
+                }
+            }
+            boolean valid = corners && ReferenceFinder.isCombination(cells, Bounds.pack(minX, minY, maxX, maxY));
+            check(board.selection(balls[0], balls[1], balls[2], balls[3]) == valid, "random selection");
+        }
+
+        private void checkSnapshot(Board board, int[][] cells) {
+            Board decoded = BoardSnapshot.decode(BoardSnapshot.encode(board));
+            checkCells(decoded, cells, "snapshot");
+            check(decoded.getHash() == board.getHash(), "snapshot changed the hash");
+        }
+
+        private void checkPackedBoards(Board board, int[][] cells) {
+            int size = board.getSize();
+            PackedBoards storage = packed[size];
+            storage.clear();
+            storage.add(board);
+            storage.add(board);
+
+            // Change a ball of the second board through a view. Both boards
+            // are next to each other in the same array, so this also catches
+            // writes that leak into the neighbour.
+            int colors = BallColor.values().length;
+            int x = random.nextInt(size), y = random.nextInt(size);
+            int color = (cells[x][y] + 1 + random.nextInt(colors - 1)) % colors;
+            PackedBoards.View view = storage.view(1);
+            view.setColorIndex(x, y, color);
+
+            Board copy = copies[size];
+            storage.get(0, copy);
+            checkCells(copy, cells, "stored board");
+            for (int cy = 0; cy < size; cy++) {
+                for (int cx = 0; cx < size; cx++) {
+                    int expected = cx == x && cy == y ? color : cells[cx][cy];
+                    if (view.getColorIndex(cx, cy) != expected || storage.getColorIndex(1, cx, cy) != expected) {
+                        throw new IllegalStateException("stored view differs at " + cx + ", " + cy);
+                    }
+                    if (storage.getColorIndex(0, cx, cy) != cells[cx][cy]) {
+                        throw new IllegalStateException("write through a view changed another board at "
+                                + cx + ", " + cy);
+                    }
+                }
+            }
+        }
+
+        private void checkCells(Board board, int[][] cells, String what) {
+            int size = board.getSize();
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    // Only build the message on failure, this runs for every ball.
+                    if (board.getColorIndex(x, y) != cells[x][y]) {
+                        throw new IllegalStateException(what + " differs at " + x + ", " + y);
+                    }
+                }
+            }
+        }
+
+        private void checkGenerator(Board board, int[][] cells) {
+            int size = board.getSize();
+            if (size < 2) {
+                return;
+            }
+            int x1 = random.nextInt(size), x2 = random.nextInt(size);
+            int y1 = random.nextInt(size), y2 = random.nextInt(size);
+            int region = Bounds.pack(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2));
+            int atLeast = 1 + random.nextInt(3);
+            constraints.atLeast(atLeast).excluding(region);
+
+            if (board.randomize(region, constraints)) {
+                // This checks the generator, not the storage, so the colors
+                // are read back from the board. They are painted again for
+                // the next board anyway.
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        cells[x][y] = board.getColorIndex(x, y);
+                    }
+                }
+                int[] combinations = ReferenceFinder.findAll(cells, size);
+                check(combinations.length >= atLeast, "generator made " + combinations.length
+                        + " combinations, asked for " + atLeast);
+                check(!ReferenceFinder.contains(combinations, region), "generator made the excluded combination");
+            }
+        }
+
+        /** Spread the bits of some bounds, so that their sum is a good hash. */
+        private static long mix(int bounds) {
+            long hash = bounds * 0x9E3779B97F4A7C15L;
+            return hash ^ (hash >>> 29);
+        }
+
+        private void shuffle(int[] values) {
+            for (int i = values.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = values[i];
+                values[i] = values[j];
+                values[j] = swap;
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b & 0xFF));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Fuzz the engine from the command line. Arguments, all optional:
+     * boards, seed, threads and how often a board is checked against the
+     * reference (1 checks every board).
+     */
+    public static void main(String[] args) {
+        long boards = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int fullInterval = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_FULL_INTERVAL;
+
+        System.out.println("Fuzzing " + boards + " boards, seed " + seed + ", " + threads + " threads, "
+                + "1 in " + fullInterval + " against the reference");
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(threads, new RandomSource(seed), fullInterval);
+        long start = System.nanoTime();
+        try {
+            fuzzer.run(boards);
+        } catch (IllegalStateException e) {
+            System.out.println("FAILED after " + fuzzer.getCheckedBoards() + " boards: " + e.getMessage());
+            System.exit(1);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("OK, %d boards in %.2f s (%.0f boards/s)%n", fuzzer.getCheckedBoards(), seconds,
+                fuzzer.getCheckedBoards() / seconds);
+    }
+}
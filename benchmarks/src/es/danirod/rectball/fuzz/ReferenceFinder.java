@@ -0,0 +1,106 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.fuzz;
+
+import es.danirod.rectball.model.Bounds;
+
+import java.util.Arrays;
+
+/**
+ * The original combination finder, kept as the reference that optimized
+ * code is compared against. For every ball it looks for balls of the same
+ * color to its right and above it, and checks whether the fourth corner
+ * has the same color too. It is slow, but it is obviously right.
+ *
+ * The original finder could report a rectangle more than once, so the
+ * combinations are deduplicated before they are compared. The colors are
+ * read from a plain array instead of a board, so a bug in the storage of
+ * the board can't hide itself from the comparison.
+ */
+final class ReferenceFinder {
+
+    private ReferenceFinder() {
+
+    }
+
+    /**
+     * Find every combination on a board.
+     * @param cells  the color of every ball, as cells[x][y].
+     * @param size  the size of the board.
+     * @return  the packed bounds of every combination, sorted and without
+     *          duplicates.
+     */
+    static int[] findAll(int[][] cells, int size) {
+        int[] bounds = new int[16];
+        int found = 0;
+        for (int y = 0; y < size - 1; y++) {
+            for (int x = 0; x < size - 1; x++) {
+                int reference = cells[x][y];
+                for (int cx = x + 1; cx < size; cx++) {
+                    if (cells[cx][y] != reference) {
+                        continue;
+                    }
+                    for (int cy = y + 1; cy < size; cy++) {
+                        if (cells[x][cy] == reference
+                                && cells[cx][cy] == reference) {
+                            if (found == bounds.length) {
+                                bounds = Arrays.copyOf(bounds, found * 2);
+                            }
+                            bounds[found++] = Bounds.pack(x, y, cx, cy);
+                        }
+                    }
+                }
+            }
+        }
+        return sortedUnique(Arrays.copyOf(bounds, found));
+    }
+
+    /**
+     * Sort some packed bounds and remove the duplicates.
+     * @param bounds  the bounds, which will be sorted in place.
+     * @return  the sorted bounds without duplicates.
+     */
+    static int[] sortedUnique(int[] bounds) {
+        Arrays.sort(bounds);
+        int unique = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            if (unique == 0 || bounds[unique - 1] != bounds[i]) {
+                bounds[unique++] = bounds[i];
+            }
+        }
+        return Arrays.copyOf(bounds, unique);
+    }
+
+    /** @return whether the four corners of the bounds share color. */
+    static boolean isCombination(int[][] cells, int bounds) {
+        int color = cells[Bounds.minX(bounds)][Bounds.minY(bounds)];
+        return Bounds.minX(bounds) < Bounds.maxX(bounds) && Bounds.minY(bounds) < Bounds.maxY(bounds)
+                && cells[Bounds.maxX(bounds)][Bounds.minY(bounds)] == color
+                && cells[Bounds.minX(bounds)][Bounds.maxY(bounds)] == color
+                && cells[Bounds.maxX(bounds)][Bounds.maxY(bounds)] == color;
+    }
+
+    static boolean contains(int[] sortedBounds, int bounds) {
+        return Arrays.binarySearch(sortedBounds, bounds) >= 0;
+    }
+
+    static int area(int bounds) {
+        return (Bounds.maxX(bounds) - Bounds.minX(bounds) + 1)
+                * (Bounds.maxY(bounds) - Bounds.minY(bounds) + 1);
+    }
+}
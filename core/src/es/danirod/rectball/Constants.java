@@ -1,5 +1,7 @@
 package es.danirod.rectball;
 
+import es.danirod.rectball.model.GameRules;
+
 /**
  * Class for holding constant values to keep them centralized.
  */
@@ -24,5 +26,9 @@ public class Constants {
      */
     public static final int STAGE_PADDING = 20;
 
-    public static final int SECONDS = 30;
+    /**
+     * The length of a game in seconds. The rules live in the model so that
+     * headless code plays the same game.
+     */
+    public static final int SECONDS = GameRules.SECONDS;
 }
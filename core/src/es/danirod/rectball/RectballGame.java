@@ -19,6 +19,7 @@ package es.danirod.rectball;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.assets.loaders.TextureLoader.TextureParameter;
@@ -39,6 +40,7 @@ import es.danirod.rectball.settings.ScoreIO;
 import es.danirod.rectball.settings.Scores;
 import es.danirod.rectball.settings.Settings;
 import es.danirod.rectball.statistics.Statistics;
+import es.danirod.rectball.statistics.StatisticsIO;
 import es.danirod.rectball.utils.RectballSkin;
 import es.danirod.rectball.utils.SoundPlayer;
 
@@ -51,6 +53,12 @@ public class RectballGame extends Game {
 
     public static final String VERSION = "Rectball 0.3.0";
 
+    /**
+     * Screens that haven't been shown during this many screen changes and
+     * are not in the stack have their stage released.
+     */
+    private static final int STAGE_KEEP_SCREENS = 3;
+
     /* FIXME: Privatize this. */
 
     private Map<Integer, AbstractScreen> screens = new HashMap<>();
@@ -75,8 +83,16 @@ public class RectballGame extends Game {
 
     private Deque<AbstractScreen> screenStack = new ArrayDeque<>();
 
+    /** Batch shared by the stage of every screen. */
+    private SpriteBatch batch;
+
+    /** How many times the current screen has changed. */
+    private int screenCounter = 0;
+
     @Override
     public void create() {
+        batch = new SpriteBatch();
+
         // Add the screens.
         addScreen(new GameScreen(this));
         addScreen(new GameOverScreen(this));
@@ -89,7 +105,6 @@ public class RectballGame extends Game {
 
         // Load the resources.
         manager = createManager();
-        screens.get(Screens.LOADING).load();
         setScreen(screens.get(Screens.LOADING));
     }
 
@@ -97,17 +112,12 @@ public class RectballGame extends Game {
         // Load the remaining data.
         settings = new Settings(Gdx.app.getPreferences("rectball"));
         scores = ScoreIO.load();
-        statistics = Statistics.loadStats();
+        statistics = StatisticsIO.load();
         player = new SoundPlayer(this);
         uiSkin = new RectballSkin(this);
         updateBallAtlas();
         locale = setUpLocalization();
 
-        // Load the screens.
-        for (Map.Entry<Integer, AbstractScreen> screen : screens.entrySet()) {
-            screen.getValue().load();
-        }
-
         // Enter main menu.
         pushScreen(Screens.MAIN_MENU);
     }
@@ -204,9 +214,47 @@ public class RectballGame extends Game {
 
     @Override
     public void dispose() {
+        super.dispose();
+        for (AbstractScreen screen : screens.values()) {
+            screen.dispose();
+        }
+        batch.dispose();
         manager.dispose();
     }
 
+    @Override
+    public void setScreen(Screen screen) {
+        screenCounter++;
+        super.setScreen(screen);
+        releaseStages();
+    }
+
+    /**
+     * Release the stage of the screens that haven't been visited recently.
+     * Screens in the stack keep their stage since going back to them
+     * should be quick. The screen that has just been hidden is kept too,
+     * since it might still be running the action that changed the screen.
+     */
+    private void releaseStages() {
+        for (AbstractScreen screen : screens.values()) {
+            if (screen != getScreen() && screen.isLoaded()
+                    && screenCounter - screen.getLastShown() > STAGE_KEEP_SCREENS
+                    && !screenStack.contains(screen)) {
+                screen.releaseStage();
+            }
+        }
+    }
+
+    /** @return the batch shared by the stage of every screen. */
+    public Batch getBatch() {
+        return batch;
+    }
+
+    /** @return how many times the current screen has changed. */
+    public int getScreenCounter() {
+        return screenCounter;
+    }
+
     /**
      * Pushes the provided screen into the stack and sets it as the current screen.
      * The screen that has been previously on screen can be retrieved later using
@@ -0,0 +1,138 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.actors;
+
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.actions.AlphaAction;
+import com.badlogic.gdx.scenes.scene2d.actions.MoveByAction;
+import com.badlogic.gdx.scenes.scene2d.actions.ParallelAction;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * Short lived text that floats up on the stage and fades out, such as the
+ * points given by a combination. Floating labels are taken from a
+ * {@link FloatingLabelPool} and they return to it on their own when the
+ * animation finishes, so showing many of them doesn't create garbage.
+ * The animation is built once per label and restarted every time.
+ */
+public class FloatingLabel extends Label implements Pool.Poolable {
+
+    /** The pool this label returns to. */
+    private final Pool<FloatingLabel> pool;
+
+    /** Text is built here to avoid creating strings. */
+    private final StringBuilder buffer = new StringBuilder();
+
+    private final MoveByAction rise = new MoveByAction();
+
+    private final AlphaAction fade = new AlphaAction();
+
+    private final ParallelAction animation = new ParallelAction(rise, fade);
+
+    /** Code to run when the animation finishes, or null. */
+    private Runnable callback;
+
+    /** Is this label being animated on a stage? */
+    private boolean animating;
+
+    FloatingLabel(Pool<FloatingLabel> pool, Skin skin, String styleName) {
+        super("", skin, styleName);
+        this.pool = pool;
+        setAlignment(Align.center);
+    }
+
+    /**
+     * Set up the animation used every time this label is shown.
+     *
+     * @param distance  how far the label moves up.
+     * @param duration  how many seconds the animation lasts for.
+     * @param alpha  the alpha of the label when the animation ends.
+     */
+    void setAnimation(float distance, float duration, float alpha) {
+        rise.setAmount(0, distance);
+        rise.setDuration(duration);
+        fade.setAlpha(alpha);
+        fade.setDuration(duration);
+    }
+
+    /**
+     * Set the text of this label to a number, optionally preceded by some
+     * prefix, without creating a new string.
+     *
+     * @param prefix  the text to put before the number.
+     * @param value  the number.
+     */
+    public void setText(String prefix, int value) {
+        buffer.setLength(0);
+        buffer.append(prefix).append(value);
+        setText(buffer);
+    }
+
+    /**
+     * Add this label to the stage and start the animation. When the
+     * animation finishes the label is removed from the stage, the callback
+     * is run and the label goes back to its pool, so it must not be used
+     * after calling this method.
+     *
+     * @param stage  the stage where the label is shown.
+     * @param centerX  horizontal center of the label.
+     * @param centerY  vertical center of the label.
+     * @param after  code to run when the animation finishes, or null.
+     */
+    public void show(Stage stage, float centerX, float centerY, Runnable after) {
+        callback = after;
+        getColor().a = 1;
+        setPosition(centerX - getWidth() / 2, centerY - getHeight() / 2);
+        animation.restart();
+        addAction(animation);
+        animating = true;
+        stage.addActor(this);
+    }
+
+    @Override
+    public void act(float delta) {
+        super.act(delta);
+
+        // Finish once the animation has been removed from this label. This
+        // is done here instead of using an action because the callback may
+        // want to show another label while the actions are still running.
+        if (animating && !getActions().contains(animation, true)) {
+            animating = false;
+            remove();
+            Runnable after = callback;
+            callback = null;
+            if (after != null) {
+                after.run();
+            }
+            pool.free(this);
+        }
+    }
+
+    @Override
+    public void reset() {
+        clearActions();
+        remove();
+        callback = null;
+        animating = false;
+        getColor().a = 1;
+    }
+}
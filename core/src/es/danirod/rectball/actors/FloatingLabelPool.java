@@ -0,0 +1,70 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.actors;
+
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Pool of floating labels that look and move the same way. Labels are
+ * created the first time they are needed and then reused, so a screen
+ * only has as many labels as it has shown at the same time.
+ */
+public class FloatingLabelPool extends Pool<FloatingLabel> {
+
+    private final Skin skin;
+
+    private final String styleName;
+
+    private final float fontScale, width, height;
+
+    private final float distance, duration, alpha;
+
+    /**
+     * Create a new pool of labels.
+     *
+     * @param skin  the skin used by the labels.
+     * @param styleName  the name of the label style in the skin.
+     * @param fontScale  the font scale of the labels.
+     * @param width  the width of the labels.
+     * @param height  the height of the labels.
+     * @param distance  how far the labels move up.
+     * @param duration  how many seconds the animation lasts for.
+     * @param alpha  the alpha of the labels when the animation ends.
+     */
+    public FloatingLabelPool(Skin skin, String styleName, float fontScale, float width, float height,
+                             float distance, float duration, float alpha) {
+        this.skin = skin;
+        this.styleName = styleName;
+        this.fontScale = fontScale;
+        this.width = width;
+        this.height = height;
+        this.distance = distance;
+        this.duration = duration;
+        this.alpha = alpha;
+    }
+
+    @Override
+    protected FloatingLabel newObject() {
+        FloatingLabel label = new FloatingLabel(this, skin, styleName);
+        label.setFontScale(fontScale);
+        label.setSize(width, height);
+        label.setAnimation(distance, duration, alpha);
+        return label;
+    }
+}
@@ -138,6 +138,16 @@ public class TimerActor extends Actor {
         }
     }
 
+    /**
+     * Fill the timer again and stop it, so that it can be used for a new
+     * game. Any action attached to this timer is removed.
+     */
+    public void reset() {
+        clearActions();
+        seconds = maxSeconds;
+        running = false;
+    }
+
     /**
      * Whether this timer is running or not.
      * @return  is the timer running or not
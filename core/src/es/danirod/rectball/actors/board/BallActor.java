@@ -1,12 +1,11 @@
 package es.danirod.rectball.actors.board;
 
-import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
-import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.utils.Scaling;
 import es.danirod.rectball.model.Ball;
 
@@ -22,12 +21,9 @@ public class BallActor extends Image {
 
     private BoardActor board;
 
-    private TextureAtlas atlas;
-
-    public BallActor(BoardActor board, Ball ball, TextureAtlas atlas) {
+    public BallActor(BoardActor board, Ball ball) {
         this.board = board;
         this.ball = ball;
-        this.atlas = atlas;
         setScaling(Scaling.fit);
         addListener(new InputListener() {
             @Override
@@ -40,10 +36,17 @@ public class BallActor extends Image {
 
     @Override
     public void act(float delta) {
-        if (board.isColoured()) {
-            setDrawable(new TextureRegionDrawable(atlas.findRegion("ball_" + ball.getColor().toString().toLowerCase())));
-        } else {
-            setDrawable(new TextureRegionDrawable(atlas.findRegion("ball_gray")));
+        // Drawables are shared by the board, so only swap them when the
+        // color of the ball or the coloured flag have changed.
+        Drawable drawable = board.getBallDrawable(ball.getColor());
+        if (drawable != getDrawable()) {
+            setDrawable(drawable);
+            invalidateBatch();
+        }
+
+        // Actions may move, scale, rotate or tint this ball without telling.
+        if (getActions().size > 0) {
+            invalidateBatch();
         }
         super.act(delta);
     }
@@ -51,6 +54,49 @@ public class BallActor extends Image {
     @Override
     protected void sizeChanged() {
         setOrigin(getWidth() / 2, getHeight() / 2);
+        invalidateBatch();
+    }
+
+    @Override
+    protected void positionChanged() {
+        invalidateBatch();
+    }
+
+    @Override
+    public void setColor(Color color) {
+        super.setColor(color);
+        invalidateBatch();
+    }
+
+    @Override
+    public void setColor(float r, float g, float b, float a) {
+        super.setColor(r, g, b, a);
+        invalidateBatch();
+    }
+
+    @Override
+    public void layout() {
+        super.layout();
+        invalidateBatch();
+    }
+
+    /** Let the board know that this ball looks different. */
+    private void invalidateBatch() {
+        // Image calls some of these methods before the ball is set.
+        if (board != null && ball != null) {
+            board.invalidateBatch(ball.getX(), ball.getY());
+        }
+    }
+
+    /**
+     * Remove any animation and bring this ball back to its normal size and
+     * color. Balls moved by an action are put back on the next layout.
+     */
+    void reset() {
+        clearActions();
+        setScale(1);
+        setColor(Color.WHITE);
+        selected = false;
     }
 
     public boolean isSelected() {
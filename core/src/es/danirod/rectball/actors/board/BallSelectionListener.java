@@ -1,12 +1,16 @@
 package es.danirod.rectball.actors.board;
 
-import java.util.List;
+import es.danirod.rectball.model.Coordinate;
 
 /**
  * Interface used to trigger events related to ball selection and board.
  * Events such as: a ball has been selected or unselected, or a combination
  * has been made. Possible uses: play a sound when a ball is selected,
  * check if a combination is valid...
+ *
+ * Selections are given as packed coordinates, see {@link Coordinate#pack},
+ * so the board doesn't build a list every time the player makes one. Use
+ * {@link BoardActor#getBallAt(int)} to get the actors.
  */
 public interface BallSelectionListener {
 
@@ -26,23 +30,32 @@ public interface BallSelectionListener {
      * This event is triggered when a selection is made and the selection has
      * already be checked to be valid. All the selected balls form a rectangle
      * whose four corners are made of the same color.
-     * @param selection  balls that form this selection.
+     * @param first  packed coordinate of the first selected ball.
+     * @param second  packed coordinate of the second selected ball.
+     * @param third  packed coordinate of the third selected ball.
+     * @param fourth  packed coordinate of the fourth selected ball.
      */
-    void onSelectionSucceded(List<BallActor> selection);
+    void onSelectionSucceded(int first, int second, int third, int fourth);
 
     /**
      * This event is triggered when a selection is made and the selection is
      * checked not to be valid. Any of the conditions required to be a valid
      * selection is not happening.
-     * @param selection  balls that don't form this selection.
+     * @param first  packed coordinate of the first selected ball.
+     * @param second  packed coordinate of the second selected ball.
+     * @param third  packed coordinate of the third selected ball.
+     * @param fourth  packed coordinate of the fourth selected ball.
      */
-    void onSelectionFailed(List<BallActor> selection);
+    void onSelectionFailed(int first, int second, int third, int fourth);
 
     /**
      * This event is triggered when the board is forced to unselect every ball.
      * This happens, for instance, when the game is over, so that no selected
      * balls remain on the screen while the animations start.
-     * @param selection  the list of balls that has been unselected.
+     * @param selection  packed coordinates of the balls that have been
+     *                   unselected. The array is reused by the board, so
+     *                   it must not be kept after this call.
+     * @param count  how many balls have been unselected.
      */
-    void onSelectionCleared(List<BallActor> selection);
+    void onSelectionCleared(int[] selection, int count);
 }
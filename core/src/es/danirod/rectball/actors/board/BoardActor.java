@@ -1,11 +1,15 @@
 package es.danirod.rectball.actors.board;
 
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.scenes.scene2d.Action;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.actions.RunnableAction;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import es.danirod.rectball.model.*;
 import es.danirod.rectball.screens.GameScreen;
 
@@ -15,7 +19,13 @@ public class BoardActor extends Table {
 
     private final BallActor[][] actors;
 
-    private Set<BallActor> selection = new HashSet<>();
+    private final BallActor[] selection = new BallActor[4];
+
+    /** Packed coordinates of the selected balls, see {@link Coordinate#pack}. */
+    private final int[] selectedCoordinates = new int[4];
+
+    /** How many balls are currently selected. */
+    private int selectionSize = 0;
 
     /**
      * Subscribers that will receive notifications about selection events.
@@ -28,23 +38,60 @@ public class BoardActor extends Table {
     /** Is the board coloured? If false, all the balls will be grayed. */
     private boolean coloured = false;
 
+    /** Drawable for every color, shared by every ball in the board. */
+    private final Drawable[] colorDrawables;
+
+    /** Drawable used by every ball when the board is not coloured. */
+    private final Drawable grayDrawable;
+
+    /** Draws every ball at once, or null if the drawables can't be batched. */
+    private final BoardBatch boardBatch;
+
+    /** Should the balls be drawn in a single call instead of one by one? */
+    private boolean batched = false;
+
     public BoardActor(TextureAtlas atlas, Board board) {
         this.board = board;
         this.actors = new BallActor[board.getSize()][board.getSize()];
 
+        // Look the regions up once instead of once per ball and frame.
+        BallColor[] colors = BallColor.values();
+        colorDrawables = new Drawable[colors.length];
+        for (BallColor color : colors) {
+            String region = "ball_" + color.toString().toLowerCase();
+            colorDrawables[color.ordinal()] = new TextureRegionDrawable(atlas.findRegion(region));
+        }
+        grayDrawable = new TextureRegionDrawable(atlas.findRegion("ball_gray"));
+
         for (int y = board.getSize() - 1; y >= 0; y--) {
             for (int x = 0; x < board.getSize(); x++) {
-                actors[x][y] = new BallActor(this, board.getBall(x, y), atlas);
+                actors[x][y] = new BallActor(this, board.getBall(x, y));
                 add(actors[x][y]).pad(2).uniform();
             }
             row();
         }
+
+        Texture texture = BoardBatch.sharedTexture(colorDrawables);
+        if (texture != null && BoardBatch.sharedTexture(colorDrawables[0], grayDrawable) == texture) {
+            boardBatch = new BoardBatch(actors, texture);
+        } else {
+            boardBatch = null;
+        }
     }
 
     public BallActor getBall(int x, int y) {
         return actors[x][y];
     }
 
+    /**
+     * Get a ball using its packed coordinate.
+     * @param coordinate  the coordinate of the ball, see {@link Coordinate#pack}.
+     * @return  the actor for that ball.
+     */
+    public BallActor getBallAt(int coordinate) {
+        return actors[Coordinate.unpackX(coordinate)][Coordinate.unpackY(coordinate)];
+    }
+
     public boolean isColoured() {
         return coloured;
     }
@@ -53,32 +100,110 @@ public class BoardActor extends Table {
         this.coloured = coloured;
     }
 
+    public boolean isBatched() {
+        return batched;
+    }
+
+    /**
+     * Draw every ball using a single call to the batch. The board keeps
+     * the vertices of every ball and only rebuilds them when something
+     * changes, so drawing the board doesn't cost more as the board grows.
+     * The balls are still actors, so they can be touched and animated. Only
+     * the balls that changed since the last frame are written again. This
+     * mode is off by default, and it is ignored if the ball drawables don't
+     * come from the same texture.
+     *
+     * @param batched  whether to draw the board in a single call.
+     */
+    public void setBatched(boolean batched) {
+        this.batched = batched;
+        invalidateBatch();
+    }
+
+    /**
+     * Tell the board that a ball looks different. This is called by the
+     * balls, and only matters when the board is drawn in a single call.
+     */
+    void invalidateBatch() {
+        if (boardBatch != null) {
+            boardBatch.invalidate();
+        }
+    }
+
+    /**
+     * Tell the board that a single ball looks different.
+     * @param x  the column of the ball.
+     * @param y  the row of the ball.
+     */
+    void invalidateBatch(int x, int y) {
+        if (boardBatch != null) {
+            boardBatch.invalidate(x, y);
+        }
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        if (!batched || boardBatch == null) {
+            super.draw(batch, parentAlpha);
+            return;
+        }
+        // Same as Group, so the board can still be scaled or rotated.
+        validate();
+        if (isTransform()) {
+            applyTransform(batch, computeTransform());
+            boardBatch.draw(batch, 0, 0, parentAlpha * getColor().a);
+            resetTransform(batch);
+        } else {
+            boardBatch.draw(batch, getX(), getY(), parentAlpha * getColor().a);
+        }
+    }
+
+    @Override
+    protected void positionChanged() {
+        invalidateBatch();
+    }
+
+    @Override
+    protected void sizeChanged() {
+        super.sizeChanged();
+        invalidateBatch();
+    }
+
+    /**
+     * Get the drawable a ball should be using right now.
+     * @param color  the color of the ball.
+     * @return  the drawable for that color, or the gray drawable if the
+     *          board is not coloured.
+     */
+    Drawable getBallDrawable(BallColor color) {
+        return coloured && color != null ? colorDrawables[color.ordinal()] : grayDrawable;
+    }
+
     /** Select a ball. */
     public void select(int x, int y) {
         BallActor selectedBall = actors[x][y];
-        if (selection.add(selectedBall)) {
+        if (indexOfSelected(selectedBall) < 0) {
+            selection[selectionSize] = selectedBall;
+            selectedCoordinates[selectionSize++] = Coordinate.pack(x, y);
+
             // This ball has been selected. Check if we already have four.
-            if (selection.size() == 4) {
+            if (selectionSize == 4) {
                 // Yes we have, check the selection.
-                List<Ball> ballSelection = new ArrayList<>();
-                for (BallActor ball : selection)
-                    ballSelection.add(ball.getBall());
-                if (board.selection(ballSelection)) {
+                int first = selectedCoordinates[0], second = selectedCoordinates[1];
+                int third = selectedCoordinates[2], fourth = selectedCoordinates[3];
+                if (board.selection(first, second, third, fourth)) {
                     // It is a valid selection. Notify our subscribers.
                     for (BallSelectionListener subscriber : subscribers)
-                        subscriber.onSelectionSucceded(new ArrayList<>(selection));
+                        subscriber.onSelectionSucceded(first, second, third, fourth);
                 } else {
                     // It is not a valid selection. Notify our subscribers.
                     for (BallSelectionListener subscriber : subscribers)
-                        subscriber.onSelectionFailed(new ArrayList<>(selection));
+                        subscriber.onSelectionFailed(first, second, third, fourth);
                 }
                 // Valid or not, we clear our current selection. We don't notify
                 // our subscribers about the clear event. Subscribers should
                 // assume on selection events that the selection is cleared.
-                for (BallActor selected : selection) {
-                    selected.quietlySetSelected(false);
-                }
-                selection.clear();
+                quietlyClearSelection();
             } else {
                 // No we don't, just select it.
                 for (BallSelectionListener subscriber : subscribers)
@@ -90,7 +215,14 @@ public class BoardActor extends Table {
     /** Unselect a ball. */
     public void unselect(int x, int y) {
         BallActor unselectedBall = actors[x][y];
-        if (selection.remove(unselectedBall)) {
+        int index = indexOfSelected(unselectedBall);
+        if (index >= 0) {
+            // Move the last selected ball into the hole to keep it compact.
+            selectionSize--;
+            selection[index] = selection[selectionSize];
+            selectedCoordinates[index] = selectedCoordinates[selectionSize];
+            selection[selectionSize] = null;
+
             // This ball has been unselected. Notify our subscribers about this.
             for (BallSelectionListener subscriber : subscribers)
                 subscriber.onBallUnselected(unselectedBall);
@@ -99,13 +231,44 @@ public class BoardActor extends Table {
 
     /** Clear the selection. */
     public void clearSelection() {
-        List<BallActor> unselectedBalls = new ArrayList<>(selection);
         for (BallSelectionListener subscriber : subscribers)
-            subscriber.onSelectionCleared(unselectedBalls);
-        for (BallActor selected : selection) {
-            selected.quietlySetSelected(false);
+            subscriber.onSelectionCleared(selectedCoordinates, selectionSize);
+        quietlyClearSelection();
+    }
+
+    /**
+     * Bring the board back to the state it had when it was created, so that
+     * it can be used for a new game without building every ball again. The
+     * selection is cleared without notifying the subscribers, every action
+     * is removed and the balls are laid out again, since actions might have
+     * moved them. The board is not coloured after calling this method.
+     */
+    public void reset() {
+        quietlyClearSelection();
+        clearActions();
+        for (BallActor[] column : actors) {
+            for (BallActor ball : column) {
+                ball.reset();
+            }
+        }
+        coloured = false;
+        invalidate();
+        invalidateBatch();
+    }
+
+    private int indexOfSelected(BallActor ball) {
+        for (int i = 0; i < selectionSize; i++)
+            if (selection[i] == ball)
+                return i;
+        return -1;
+    }
+
+    private void quietlyClearSelection() {
+        for (int i = 0; i < selectionSize; i++) {
+            selection[i].quietlySetSelected(false);
+            selection[i] = null;
         }
-        selection.clear();
+        selectionSize = 0;
     }
 
     /**
@@ -0,0 +1,180 @@
+package es.danirod.rectball.actors.board;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+
+import java.util.Arrays;
+
+/**
+ * Draws every ball of a board with a single call to the batch. Every ball
+ * has its own four vertices in a shared array, and only the vertices of the
+ * balls that changed are written again: a ball that changes its drawable,
+ * moves or is being animated. Everything is written again if the board
+ * moves or fades.
+ *
+ * Balls are drawn the same way {@link com.badlogic.gdx.scenes.scene2d.ui.Image}
+ * draws them, including their scale and rotation around the origin and
+ * their color, so actions on the balls keep working.
+ */
+class BoardBatch {
+
+    /** Floats per vertex: x, y, packed color, u, v. */
+    private static final int VERTEX_SIZE = 5;
+
+    /** Floats per ball: four vertices. */
+    private static final int BALL_SIZE = 4 * VERTEX_SIZE;
+
+    private final BallActor[][] balls;
+
+    private final Texture texture;
+
+    private final float[] vertices;
+
+    /** Which balls have to be written again, by their index in the array. */
+    private final boolean[] dirty;
+
+    private boolean anyDirty = true;
+
+    /** Where was the board and how opaque was it when vertices were written. */
+    private float builtX, builtY, builtAlpha;
+
+    /**
+     * Prepare the batch for some balls.
+     * @param balls  the balls of the board.
+     * @param texture  the texture every drawable of the balls comes from.
+     */
+    BoardBatch(BallActor[][] balls, Texture texture) {
+        this.balls = balls;
+        this.texture = texture;
+        this.vertices = new float[balls.length * balls.length * BALL_SIZE];
+        this.dirty = new boolean[balls.length * balls.length];
+        invalidate();
+    }
+
+    /**
+     * Get the texture shared by some drawables.
+     * @param drawables  the drawables.
+     * @return  their texture, or null if they don't share a single texture
+     *          and the board can't be drawn in a single call.
+     */
+    static Texture sharedTexture(Drawable... drawables) {
+        Texture texture = null;
+        for (Drawable drawable : drawables) {
+            if (!(drawable instanceof TextureRegionDrawable)) {
+                return null;
+            }
+            Texture other = ((TextureRegionDrawable) drawable).getRegion().getTexture();
+            if (texture != null && texture != other) {
+                return null;
+            }
+            texture = other;
+        }
+        return texture;
+    }
+
+    /** Ask for the vertices of every ball to be written again. */
+    void invalidate() {
+        Arrays.fill(dirty, true);
+        anyDirty = true;
+    }
+
+    /**
+     * Ask for the vertices of a ball to be written again.
+     * @param x  the column of the ball.
+     * @param y  the row of the ball.
+     */
+    void invalidate(int x, int y) {
+        dirty[x * balls.length + y] = true;
+        anyDirty = true;
+    }
+
+    /**
+     * Draw the balls.
+     * @param batch  the batch.
+     * @param x  the position of the board, as given to its draw method.
+     * @param y  the position of the board, as given to its draw method.
+     * @param parentAlpha  the alpha of the parent of the board.
+     */
+    void draw(Batch batch, float x, float y, float parentAlpha) {
+        if (x != builtX || y != builtY || parentAlpha != builtAlpha) {
+            builtX = x;
+            builtY = y;
+            builtAlpha = parentAlpha;
+            invalidate();
+        }
+        if (anyDirty) {
+            for (int bx = 0; bx < balls.length; bx++) {
+                for (int by = 0; by < balls.length; by++) {
+                    int index = bx * balls.length + by;
+                    if (dirty[index]) {
+                        writeBall(balls[bx][by], index * BALL_SIZE);
+                        dirty[index] = false;
+                    }
+                }
+            }
+            anyDirty = false;
+        }
+        batch.draw(texture, vertices, 0, vertices.length);
+    }
+
+    private void writeBall(BallActor ball, int offset) {
+        if (!ball.isVisible() || ball.getDrawable() == null) {
+            // An empty quad takes the place of the ball.
+            Arrays.fill(vertices, offset, offset + BALL_SIZE, 0);
+            return;
+        }
+
+        // Balls are not drawn, so nobody else lays them out.
+        ball.validate();
+        TextureRegion region = ((TextureRegionDrawable) ball.getDrawable()).getRegion();
+        Color color = ball.getColor();
+        float packedColor = Color.toFloatBits(color.r, color.g, color.b, color.a * builtAlpha);
+
+        // Scale and rotate the image around the origin of the ball, like
+        // Image does.
+        float originX = ball.getOriginX() - ball.getImageX();
+        float originY = ball.getOriginY() - ball.getImageY();
+        float worldOriginX = builtX + ball.getX() + ball.getImageX() + originX;
+        float worldOriginY = builtY + ball.getY() + ball.getImageY() + originY;
+        float left = -originX * ball.getScaleX();
+        float bottom = -originY * ball.getScaleY();
+        float right = (ball.getImageWidth() - originX) * ball.getScaleX();
+        float top = (ball.getImageHeight() - originY) * ball.getScaleY();
+        float cos = 1, sin = 0;
+        if (ball.getRotation() != 0) {
+            cos = MathUtils.cosDeg(ball.getRotation());
+            sin = MathUtils.sinDeg(ball.getRotation());
+        }
+
+        float u = region.getU(), v = region.getV2(), u2 = region.getU2(), v2 = region.getV();
+        int i = offset;
+        vertices[i++] = worldOriginX + cos * left - sin * bottom;
+        vertices[i++] = worldOriginY + sin * left + cos * bottom;
+        vertices[i++] = packedColor;
+        vertices[i++] = u;
+        vertices[i++] = v;
+
+        vertices[i++] = worldOriginX + cos * left - sin * top;
+        vertices[i++] = worldOriginY + sin * left + cos * top;
+        vertices[i++] = packedColor;
+        vertices[i++] = u;
+        vertices[i++] = v2;
+
+        vertices[i++] = worldOriginX + cos * right - sin * top;
+        vertices[i++] = worldOriginY + sin * right + cos * top;
+        vertices[i++] = packedColor;
+        vertices[i++] = u2;
+        vertices[i++] = v2;
+
+        vertices[i++] = worldOriginX + cos * right - sin * bottom;
+        vertices[i++] = worldOriginY + sin * right + cos * bottom;
+        vertices[i++] = packedColor;
+        vertices[i++] = u2;
+        vertices[i] = v;
+    }
+}
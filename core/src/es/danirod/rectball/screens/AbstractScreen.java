@@ -53,6 +53,12 @@ public abstract class AbstractScreen implements Screen {
     /** Common table. */
     private Table table;
 
+    /** Value of the game screen counter the last time this screen was shown. */
+    private int lastShown;
+
+    /** Has the interface been set up on the current table? */
+    private boolean interfaceReady;
+
     public AbstractScreen(RectballGame game) {
         this(game, true);
     }
@@ -64,16 +70,47 @@ public abstract class AbstractScreen implements Screen {
 
     @Override
     public void resize(int width, int height) {
-        stage.getViewport().update(width, height);
+        getStage().getViewport().update(width, height);
     }
 
+    /**
+     * Create the stage and the table for this screen. The stage draws using
+     * the batch shared by the whole game, so it doesn't need a batch of its
+     * own. This method is called the first time the stage is needed, so
+     * screens that are never visited don't pay for it.
+     */
     public void load() {
         Viewport viewport = new FitViewport(VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
-        stage = new Stage(viewport);
+        stage = new Stage(viewport, game.getBatch());
         table = new Table();
         table.setFillParent(true);
         table.pad(STAGE_PADDING);
         stage.addActor(table);
+        interfaceReady = false;
+    }
+
+    /**
+     * Dispose the stage of this screen. The shared batch is not disposed.
+     * The stage will be created again the next time the screen is shown.
+     * This must not be called while this screen is visible.
+     */
+    public void releaseStage() {
+        if (stage != null) {
+            stage.dispose();
+            stage = null;
+            table = null;
+            interfaceReady = false;
+        }
+    }
+
+    /** @return whether this screen has a stage right now. */
+    public boolean isLoaded() {
+        return stage != null;
+    }
+
+    /** @return value of the game screen counter the last time this screen was shown. */
+    public int getLastShown() {
+        return lastShown;
     }
 
     /**
@@ -89,6 +126,29 @@ public abstract class AbstractScreen implements Screen {
         // or errors may happen.
     }
 
+    /**
+     * Whether the interface that was set up the last time this screen was
+     * shown can be used again. If this method returns true, showing the
+     * screen again calls {@link #resetInterface()} instead of building
+     * the interface from scratch. Screens whose widgets depend on data that
+     * may have changed since then should return false, which is the
+     * default.
+     *
+     * @return  true if the current interface can be reused.
+     */
+    protected boolean canReuseInterface() {
+        return false;
+    }
+
+    /**
+     * Bring the widgets of a reused interface back to the state they had
+     * after they were set up. This is only called on screens whose
+     * {@link #canReuseInterface()} method returns true.
+     */
+    protected void resetInterface() {
+
+    }
+
     @Override
     public void pause() {
 
@@ -103,14 +163,22 @@ public abstract class AbstractScreen implements Screen {
     public void render(float delta) {
         Gdx.gl.glClearColor(0.3f, 0.4f, 0.4f, 1f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        Stage stage = getStage();
         stage.act();
         stage.draw();
     }
 
     @Override
     public void show() {
-        table.clear();
-        setUpInterface(table);
+        Stage stage = getStage();
+        lastShown = game.getScreenCounter();
+        if (interfaceReady && canReuseInterface()) {
+            resetInterface();
+        } else {
+            table.clear();
+            setUpInterface(table);
+            interfaceReady = true;
+        }
 
         Gdx.input.setCatchBackKey(true);
         if (handleBack) {
@@ -130,12 +198,15 @@ public abstract class AbstractScreen implements Screen {
 
     @Override
     public void dispose() {
-        stage.dispose();
+        releaseStage();
     }
 
     public abstract int getID();
 
     public Stage getStage() {
+        if (stage == null) {
+            load();
+        }
         return stage;
     }
 
@@ -20,30 +20,36 @@ package es.danirod.rectball.screens;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
-import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Pool;
 import es.danirod.rectball.Constants;
 import es.danirod.rectball.RectballGame;
 import es.danirod.rectball.actors.board.*;
+import es.danirod.rectball.actors.FloatingLabel;
+import es.danirod.rectball.actors.FloatingLabelPool;
 import es.danirod.rectball.actors.ScoreActor;
 import es.danirod.rectball.actors.TimerActor;
 import es.danirod.rectball.actors.TimerActor.TimerCallback;
 import es.danirod.rectball.dialogs.ConfirmDialog;
 import es.danirod.rectball.model.*;
 import es.danirod.rectball.settings.ScoreIO;
-import es.danirod.rectball.statistics.Statistics;
+import es.danirod.rectball.statistics.StatisticsIO;
 import es.danirod.rectball.utils.SoundPlayer.SoundCode;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static es.danirod.rectball.Constants.VIEWPORT_WIDTH;
 
 public class GameScreen extends AbstractScreen implements TimerCallback, BallSelectionListener {
 
+    /** Seconds without touching the board before a hint is shown. */
+    private static final float HINT_DELAY = 8f;
+
+    /** Seconds between hints if the player keeps waiting. */
+    private static final float HINT_INTERVAL = 4f;
+
     /** Display the remaining time. */
     public TimerActor timer;
 
@@ -68,6 +74,29 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
     /** True if the game has finished. */
     private boolean timeout;
 
+    /** Seconds since the player touched the board for the last time. */
+    private float idleTime;
+
+    /** The atlas the board actor was built with. */
+    private TextureAtlas ballAtlas;
+
+    /** Labels for the points given by every combination. */
+    private FloatingLabelPool scoreLabels;
+
+    /** Labels for the numbers of the countdown. */
+    private FloatingLabelPool countdownLabels;
+
+    /** Countdown being displayed, or null. */
+    private Countdown countdown;
+
+    /** Countdowns are reused, like the labels they show. */
+    private final Pool<Countdown> countdowns = new Pool<Countdown>() {
+        @Override
+        protected Countdown newObject() {
+            return new Countdown();
+        }
+    };
+
     public GameScreen(RectballGame game) {
         super(game, false);
     }
@@ -142,6 +171,7 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
         // Reset data
         game.getState().reset();
         paused = running = countdownFinished = askingLeave = timeout = false;
+        idleTime = 0;
         countdown(2, new Runnable() {
 
             @Override
@@ -167,44 +197,68 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
      *
      * @param seconds how many seconds should the countdown be displayed.
      */
-    private void countdown(final int seconds, final Runnable after) {
-        // Since this is a recursive function, avoid the case where you pass
-        // a number of seconds that might trigger an infinite loop.
+    private void countdown(int seconds, Runnable after) {
         if (seconds <= 0) {
             return;
         }
 
-        // Create the label that will contain this number
-        String number = Integer.toString(seconds);
-        final Label label = new Label(number, game.getSkin(), "monospace");
-        label.setFontScale(20f);
-        label.setSize(150, 150);
-        label.setAlignment(Align.center);
-        label.setPosition(
-                (getStage().getWidth() - label.getWidth()) / 2,
-                (getStage().getHeight() - label.getHeight()) / 2);
-
-        // Add the label to the stage and play a sound to notify the user.
-        getStage().addActor(label);
-        game.player.playSound(SoundCode.SELECT);
+        // A label from a previous countdown may still be on the stage. That
+        // countdown is cancelled, so it doesn't keep counting or finish.
+        if (countdown != null) {
+            countdown.cancelled = true;
+        }
+        countdown = countdowns.obtain();
+        countdown.seconds = seconds;
+        countdown.after = after;
+        countdown.showNumber();
+    }
+
+    /**
+     * State of a single countdown. Every countdown has its own, so the
+     * labels of a cancelled countdown can't move a newer one forward.
+     */
+    private class Countdown implements Runnable, Pool.Poolable {
+
+        /** Number being displayed. */
+        private int seconds;
+
+        /** Code to run when the countdown finishes. */
+        private Runnable after;
+
+        /** Has a newer countdown replaced this one? */
+        private boolean cancelled;
+
+        /**
+         * Show the current number and play a sound to notify the user. When
+         * the label disappears, the countdown goes on with the next number.
+         */
+        private void showNumber() {
+            FloatingLabel label = countdownLabels.obtain();
+            label.setText("", seconds);
+            label.show(getStage(), getStage().getWidth() / 2, getStage().getHeight() / 2, this);
+            game.player.playSound(SoundCode.SELECT);
+        }
 
-        label.addAction(Actions.sequence(
-                Actions.parallel(Actions.fadeOut(1f), Actions.moveBy(0, 80, 1f)),
+        @Override
+        public void run() {
+            if (!cancelled && seconds > 1) {
+                seconds--;
+                showNumber();
+                return;
+            }
+            if (!cancelled) {
+                countdown = null;
+                after.run();
+            }
+            countdowns.free(this);
+        }
 
-                // After the animation, decide. If the countdown hasn't finished
-                // yet, run another countdown with 1 second less.
-                Actions.run(new Runnable() {
-                    @Override
-                    public void run() {
-                        label.remove();
-                        if (seconds > 1) {
-                            countdown(seconds - 1, after);
-                        } else {
-                            after.run();
-                        }
-                    }
-                })
-        ));
+        @Override
+        public void reset() {
+            seconds = 0;
+            after = null;
+            cancelled = false;
+        }
     }
 
     /**
@@ -216,37 +270,50 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
      * @param bounds  the bounds that have to be regenerated.
      */
     private void generate(Bounds bounds) {
-        // Generate new balls;
-        game.getState().getBoard().randomize(
-                new Coordinate(bounds.minX, bounds.minY),
-                new Coordinate(bounds.maxX, bounds.maxY));
-
-        // Check the new board for valid combinations.
-        CombinationFinder newFinder = new CombinationFinder(game.getState().getBoard());
-        if (newFinder.getPossibleBounds().size() == 1) {
-            // Only one combination? This is trouble.
-            Bounds newCombinationBounds = newFinder.getCombination();
-            if (newCombinationBounds.equals(bounds)) {
-                // Oh, oh, in the same spot! So, they must be of the same color.
-                // Therefore, we need to randomize some balls to avoid enter
-                // an infinite loop.
-                timer.setRunning(false);
-                board.setColoured(false);
-                game.getState().resetBoard();
-                board.addAction(Actions.sequence(
-                        board.shake(10, 5, 0.05f),
-                        Actions.run(new Runnable() {
-                            @Override
-                            public void run() {
-                                board.setColoured(true);
-                                timer.setRunning(true);
-                            }
-                        })));
+        // Generate new balls. The new board must have a combination, and
+        // the region that has just been cleared can't be a combination
+        // again or the user would be doing the same move forever.
+        boolean valid = game.getState().regenerate(bounds.pack());
+        if (valid) {
+            // Sometimes a few balls outside the region have to change too.
+            // Pop them in like the region, so the player sees them.
+            Board model = game.getState().getBoard();
+            for (int i = 0; i < model.getRepaintedCount(); i++) {
+                BallActor ball = board.getBallAt(model.getRepainted(i));
+                ball.setScale(0);
+                ball.addAction(Actions.scaleTo(1f, 1f, 0.15f));
             }
+        } else {
+            // The generator couldn't meet the constraints, so the whole
+            // board has been randomized. Let the user know.
+            timer.setRunning(false);
+            board.setColoured(false);
+            board.addAction(Actions.sequence(
+                    board.shake(10, 5, 0.05f),
+                    Actions.run(new Runnable() {
+                        @Override
+                        public void run() {
+                            board.setColoured(true);
+                            timer.setRunning(true);
+                        }
+                    })));
         }
         board.addAction(board.showRegion(bounds));
     }
 
+    /**
+     * Shake a combination to give the player a hint. The combination comes
+     * from the index kept by the game state, so the board is not searched
+     * again every time a hint is shown.
+     */
+    private void showHint() {
+        idleTime = HINT_DELAY - HINT_INTERVAL;
+        int hint = game.getState().getCombinations().getCombination();
+        if (hint != Bounds.NONE) {
+            board.addAction(board.shake(Bounds.unpack(hint), 10, 5, 0.1f));
+        }
+    }
+
     private void showPartialScore(int score, Bounds bounds) {
         // Calculate the center of the region.
         BallActor bottomLeftBall = board.getBall(bounds.minX, bounds.minY);
@@ -259,26 +326,24 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
         float centerX = (minX + maxX) / 2;
         float centerY = (minY + maxY) / 2;
 
-        Label label = new Label("+" + score, game.getSkin(), "monospace");
-        label.setFontScale(10f);
-        label.setSize(140, 70);
-        label.setAlignment(Align.center);
-        label.setPosition(centerX - label.getWidth() / 2, centerY - label.getHeight() / 2);
-        label.addAction(Actions.sequence(
-                Actions.parallel(
-                        Actions.moveBy(0, 80, 0.5f),
-                        Actions.alpha(0.5f, 0.5f)),
-                Actions.removeActor()
-        ));
-        getStage().addActor(label);
+        FloatingLabel label = scoreLabels.obtain();
+        label.setText("+", score);
+        label.show(getStage(), centerX, centerY, null);
     }
 
     @Override
     public void setUpInterface(Table table) {
+        // Labels are pooled, so they survive the interface being rebuilt.
+        if (scoreLabels == null) {
+            scoreLabels = new FloatingLabelPool(game.getSkin(), "monospace", 10f, 140, 70, 80, 0.5f, 0.5f);
+            countdownLabels = new FloatingLabelPool(game.getSkin(), "monospace", 20f, 150, 150, 80, 1f, 0f);
+        }
+
         // Create the actors for this screen.
         timer = new TimerActor(Constants.SECONDS, game.getSkin());
         score = new ScoreActor(game.getSkin());
-        board = new BoardActor(game.getBallAtlas(), game.getState().getBoard());
+        ballAtlas = game.getBallAtlas();
+        board = new BoardActor(ballAtlas, game.getState().getBoard());
 
         // Disable game until countdown ends.
         timer.setRunning(false);
@@ -294,6 +359,27 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
         table.add(board).expand().row();
     }
 
+    /**
+     * The actors can be used again unless the ball atlas has changed, for
+     * instance because the colorblind mode has been toggled. Reusing them
+     * lets a new game start right away after the previous one.
+     */
+    @Override
+    protected boolean canReuseInterface() {
+        return ballAtlas == game.getBallAtlas();
+    }
+
+    @Override
+    protected void resetInterface() {
+        // Same state that setUpInterface leaves the actors in.
+        timer.reset();
+        score.clearActions();
+        score.getColor().a = 1;
+        score.setValue(0);
+        board.reset();
+        board.setTouchable(Touchable.disabled);
+    }
+
     @Override
     public void hide() {
         // Just in case, remove any dialogs that might be forgotten.
@@ -313,6 +399,12 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
         // If the timer is running, keep incrementing the timer.
         if (timer.isRunning()) {
             game.getState().addTime(delta);
+
+            // Help the player if it has been a while since the last move.
+            idleTime += delta;
+            if (idleTime >= HINT_DELAY) {
+                showHint();
+            }
         }
 
         // The user should be able to leave during the game.
@@ -382,11 +474,11 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
         game.statistics.getTotalData().incrementValue("score", game.getState().getScore());
         game.statistics.getTotalData().incrementValue("games");
         game.statistics.getTotalData().incrementValue("time", Math.round(game.getState().getTime()));
-        Statistics.saveStats(game.statistics);
+        StatisticsIO.save(game.statistics);
 
         // Mark a combination that the user could do if he had enough time.
-        CombinationFinder finder = new CombinationFinder(game.getState().getBoard());
-        Bounds combination = finder.getCombination();
+        int packedCombination = game.getState().getCombinations().getCombination();
+        Bounds combination = packedCombination == Bounds.NONE ? null : Bounds.unpack(packedCombination);
         for (int y = 0; y < game.getState().getBoard().getSize(); y++) {
             for (int x = 0; x < game.getState().getBoard().getSize(); x++) {
                 if (combination != null && !combination.inBounds(x, y)) {
@@ -410,6 +502,7 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
 
     @Override
     public void onBallSelected(BallActor ball) {
+        idleTime = 0;
         ball.addAction(Actions.scaleTo(0.8f, 0.8f, 0.15f));
         ball.addAction(Actions.color(Color.GRAY, 0.15f));
         game.player.playSound(SoundCode.SELECT);
@@ -417,18 +510,20 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
 
     @Override
     public void onBallUnselected(BallActor ball) {
+        idleTime = 0;
         ball.addAction(Actions.scaleTo(1f, 1f, 0.15f));
         ball.addAction(Actions.color(Color.WHITE, 0.15f));
         game.player.playSound(SoundCode.UNSELECT);
     }
 
     @Override
-    public void onSelectionSucceded(final List<BallActor> selection) {
-        // Extract the data from the selection.
-        List<Ball> balls = new ArrayList<>();
-        for (BallActor selectedBall : selection)
-            balls.add(selectedBall.getBall());
-        final Bounds bounds = Bounds.fromBallList(balls);
+    public void onSelectionSucceded(int first, int second, int third, int fourth) {
+        idleTime = 0;
+
+        // The selected balls are the corners of the combination, so the
+        // bounds are all the deferred code below needs to keep.
+        int combination = Bounds.fromCoordinates(first, second, third, fourth);
+        final Bounds bounds = Bounds.unpack(combination);
 
         // Change the colors of the selected region.
         board.addAction(Actions.sequence(
@@ -436,9 +531,10 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
                 Actions.run(new Runnable() {
                     @Override
                     public void run() {
-                        for (BallActor selectedBall : selection) {
-                            selectedBall.setColor(Color.WHITE);
-                        }
+                        board.getBall(bounds.minX, bounds.minY).setColor(Color.WHITE);
+                        board.getBall(bounds.maxX, bounds.minY).setColor(Color.WHITE);
+                        board.getBall(bounds.minX, bounds.maxY).setColor(Color.WHITE);
+                        board.getBall(bounds.maxX, bounds.maxY).setColor(Color.WHITE);
                         generate(bounds);
                     }
                 })
@@ -447,9 +543,9 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
         // You deserve some score and extra time.
         int rows = bounds.maxY - bounds.minY + 1;
         int cols = bounds.maxX - bounds.minX + 1;
-        game.getState().addScore(rows * cols);
+        int points = game.getState().scoreCombination(combination);
         score.setValue(game.getState().getScore());
-        timer.setSeconds(timer.getSeconds() + 4);
+        timer.setSeconds(GameRules.addBonus(timer.getSeconds()));
 
         // Put information about this combination in the stats.
         String size = Math.max(rows, cols) + "x" + Math.min(rows, cols);
@@ -463,24 +559,34 @@ public class GameScreen extends AbstractScreen implements TimerCallback, BallSel
 
 
         // Add some sound and animations.
-        showPartialScore(rows * cols, bounds);
+        showPartialScore(points, bounds);
         game.player.playSound(SoundCode.SUCCESS);
     }
 
     @Override
-    public void onSelectionFailed(List<BallActor> selection) {
-        for (BallActor selected : selection) {
-            selected.addAction(Actions.scaleTo(1f, 1f, 0.15f));
-            selected.addAction(Actions.color(Color.WHITE, 0.15f));
-        }
+    public void onSelectionFailed(int first, int second, int third, int fourth) {
+        idleTime = 0;
+        restoreBall(first);
+        restoreBall(second);
+        restoreBall(third);
+        restoreBall(fourth);
         game.player.playSound(SoundCode.FAIL);
     }
 
     @Override
-    public void onSelectionCleared(List<BallActor> selection) {
-        for (BallActor selected : selection) {
-            selected.addAction(Actions.scaleTo(1f, 1f, 0.15f));
-            selected.addAction(Actions.color(Color.WHITE, 0.15f));
+    public void onSelectionCleared(int[] selection, int count) {
+        for (int i = 0; i < count; i++) {
+            restoreBall(selection[i]);
         }
     }
+
+    /**
+     * Bring a ball that is not selected anymore back to its normal look.
+     * @param coordinate  the packed coordinate of the ball.
+     */
+    private void restoreBall(int coordinate) {
+        BallActor ball = board.getBallAt(coordinate);
+        ball.addAction(Actions.scaleTo(1f, 1f, 0.15f));
+        ball.addAction(Actions.color(Color.WHITE, 0.15f));
+    }
 }
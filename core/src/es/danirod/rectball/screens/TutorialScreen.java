@@ -6,12 +6,13 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
-import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Timer;
 import es.danirod.rectball.Constants;
 import es.danirod.rectball.RectballGame;
+import es.danirod.rectball.actors.FloatingLabel;
+import es.danirod.rectball.actors.FloatingLabelPool;
 import es.danirod.rectball.actors.ScoreActor;
 import es.danirod.rectball.actors.TimerActor;
 import es.danirod.rectball.actors.board.*;
@@ -55,13 +56,22 @@ public class TutorialScreen extends AbstractScreen implements BallSelectionListe
     /** Whether the user should be playing now or not. */
     private boolean userTime;
 
+    /** Labels for the points given by every combination. */
+    private FloatingLabelPool scoreLabels;
+
+    /** Shakes every combination it visits to help the user find them. */
+    private CombinationFinder.CombinationVisitor shaker = new CombinationFinder.CombinationVisitor() {
+        @Override
+        public boolean visit(int bounds) {
+            board.addAction(board.shake(Bounds.unpack(bounds), 10, 5, 0.1f));
+            return true;
+        }
+    };
+
     private Timer.Task watchdogTask = new Timer.Task() {
         @Override
         public void run() {
-            CombinationFinder finder = new CombinationFinder(game.getState().getBoard());
-            for (Bounds bounds : finder.getPossibleBounds()) {
-                board.addAction(board.shake(bounds, 10, 5, 0.1f));
-            }
+            game.getState().getCombinations().forEach(shaker);
         }
     };
 
@@ -81,6 +91,11 @@ public class TutorialScreen extends AbstractScreen implements BallSelectionListe
         states = new ArrayList<>();
         addStates();
 
+        // Labels are pooled, so they survive the interface being rebuilt.
+        if (scoreLabels == null) {
+            scoreLabels = new FloatingLabelPool(game.getSkin(), "monospace", 10f, 140, 70, 80, 0.5f, 0.5f);
+        }
+
         // Create the actors for this screen.
         timer = new TimerActor(1, game.getSkin());
         score = new ScoreActor(game.getSkin());
@@ -430,18 +445,15 @@ public class TutorialScreen extends AbstractScreen implements BallSelectionListe
     }
 
     @Override
-    public void onSelectionSucceded(final List<BallActor> selection) {
+    public void onSelectionSucceded(int first, int second, int third, int fourth) {
         // Reset the watchdog timer.
         if (watchdogTask.isScheduled()) {
             watchdogTask.cancel();
         }
         userTime = false;
 
-        // Extract the data from the selection.
-        List<Ball> balls = new ArrayList<>();
-        for (BallActor selectedBall : selection)
-            balls.add(selectedBall.getBall());
-        final Bounds bounds = Bounds.fromBallList(balls);
+        // The selected balls are the corners of the combination.
+        final Bounds bounds = Bounds.unpack(Bounds.fromCoordinates(first, second, third, fourth));
         int rows = bounds.maxY - bounds.minY + 1;
         int cols = bounds.maxX - bounds.minX + 1;
         score.setValue(score.getValue() + rows * cols);
@@ -452,9 +464,10 @@ public class TutorialScreen extends AbstractScreen implements BallSelectionListe
                 Actions.run(new Runnable() {
                     @Override
                     public void run() {
-                        for (BallActor selectedBall : selection) {
-                            selectedBall.setColor(Color.WHITE);
-                        }
+                        board.getBall(bounds.minX, bounds.minY).setColor(Color.WHITE);
+                        board.getBall(bounds.maxX, bounds.minY).setColor(Color.WHITE);
+                        board.getBall(bounds.minX, bounds.maxY).setColor(Color.WHITE);
+                        board.getBall(bounds.maxX, bounds.maxY).setColor(Color.WHITE);
 
                         if (currentState == 6) {
                             game.getState().getBoard().getBall(2, 2).setColor(BallColor.YELLOW);
@@ -488,22 +501,32 @@ public class TutorialScreen extends AbstractScreen implements BallSelectionListe
     }
 
     @Override
-    public void onSelectionFailed(List<BallActor> selection) {
+    public void onSelectionFailed(int first, int second, int third, int fourth) {
         // Reset the watchdog timer.
         if (watchdogTask.isScheduled()) {
             watchdogTask.cancel();
             Timer.schedule(watchdogTask, 8, 4, -2);
         }
 
-        for (BallActor selected : selection) {
-            selected.addAction(Actions.scaleTo(1f, 1f, 0.15f));
-            selected.addAction(Actions.color(Color.WHITE, 0.15f));
-        }
+        restoreBall(first);
+        restoreBall(second);
+        restoreBall(third);
+        restoreBall(fourth);
         game.player.playSound(SoundPlayer.SoundCode.FAIL);
     }
 
+    /**
+     * Bring a ball that is not selected anymore back to its normal look.
+     * @param coordinate  the packed coordinate of the ball.
+     */
+    private void restoreBall(int coordinate) {
+        BallActor ball = board.getBallAt(coordinate);
+        ball.addAction(Actions.scaleTo(1f, 1f, 0.15f));
+        ball.addAction(Actions.color(Color.WHITE, 0.15f));
+    }
+
     @Override
-    public void onSelectionCleared(List<BallActor> selection) {
+    public void onSelectionCleared(int[] selection, int count) {
 
     }
 
@@ -519,17 +542,8 @@ public class TutorialScreen extends AbstractScreen implements BallSelectionListe
         float centerX = (minX + maxX) / 2;
         float centerY = (minY + maxY) / 2;
 
-        Label label = new Label("+" + score, game.getSkin(), "monospace");
-        label.setFontScale(10f);
-        label.setSize(140, 70);
-        label.setAlignment(Align.center);
-        label.setPosition(centerX - label.getWidth() / 2, centerY - label.getHeight() / 2);
-        label.addAction(Actions.sequence(
-                Actions.parallel(
-                        Actions.moveBy(0, 80, 0.5f),
-                        Actions.alpha(0.5f, 0.5f)),
-                Actions.removeActor()
-        ));
-        getStage().addActor(label);
+        FloatingLabel label = scoreLabels.obtain();
+        label.setText("+", score);
+        label.show(getStage(), centerX, centerY, null);
     }
 }
@@ -8,9 +8,12 @@ import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonWriter;
 import es.danirod.rectball.utils.FileUtils;
 
-public class Statistics {
+/**
+ * Load and save statistics.
+ */
+public class StatisticsIO {
 
-    public static Statistics loadStats() {
+    public static Statistics load() {
         try {
             // Read stats from file and decode them.
             FileHandle handle;
@@ -30,7 +33,7 @@ public class Statistics {
         }
     }
 
-    public static void saveStats(Statistics stats) {
+    public static void save(Statistics stats) {
         // Convert statistcs to JSON.
         Json json = new Json();
         json.setOutputType(JsonWriter.OutputType.json);
@@ -47,24 +50,4 @@ public class Statistics {
         handle.writeString(encodedJson, false);
     }
 
-    private StatisticSet total, colors, sizes;
-
-    public Statistics() {
-        total = new StatisticSet();
-        colors = new StatisticSet();
-        sizes = new StatisticSet();
-    }
-
-    public StatisticSet getTotalData() {
-        return total;
-    }
-
-    public StatisticSet getColorData() {
-        return colors;
-    }
-
-    public StatisticSet getSizesData() {
-        return sizes;
-    }
-
 }
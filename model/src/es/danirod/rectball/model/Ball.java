@@ -0,0 +1,35 @@
+package es.danirod.rectball.model;
+
+/**
+ * A ball is a view over a cell of a board. It doesn't store its color by
+ * itself; reading or changing the color of a ball reads or changes the
+ * bitmasks of the board that owns it.
+ */
+public class Ball {
+
+    private final Board board;
+
+    private final int x, y;
+
+    Ball(Board board, int x, int y) {
+        this.board = board;
+        this.x = x;
+        this.y = y;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public void setColor(BallColor color) {
+        board.setColor(x, y, color);
+    }
+
+    public BallColor getColor() {
+        return board.getColor(x, y);
+    }
+}
@@ -17,13 +17,16 @@
  */
 package es.danirod.rectball.model;
 
-public class Coordinate {
-
-    public int x, y;
-
-    public Coordinate(int x, int y) {
-        this.x = x;
-        this.y = y;
-    }
-
+/**
+ * Enumerated type for representing the colors balls can have. How every
+ * color is drawn on the screen is up to the actors, so this type doesn't
+ * depend on any graphics library.
+ *
+ * @author danirod
+ */
+public enum BallColor {
+    BLUE,
+    GREEN,
+    RED,
+    YELLOW
 }
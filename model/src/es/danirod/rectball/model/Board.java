@@ -0,0 +1,419 @@
+package es.danirod.rectball.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The board is a square grid of balls. Instead of storing one object per
+ * cell, the board is stored as a bitboard: for every color and every row
+ * there is a bitmask made of one or more longs where bit x is set if the
+ * ball at (x, row) has that color. A 6x6 board with four colors fits in
+ * 24 longs, and checking whether two rows share a color at some column is
+ * just an AND between two words.
+ *
+ * Ball instances returned by {@link #getBall(int, int)} are thin views over
+ * this storage. Reading or writing their color goes straight to the masks.
+ * They are only created when they are requested for the first time, so
+ * headless code that never asks for them doesn't pay for them.
+ *
+ * Boards can have any size between 1 and {@link #MAX_SIZE}. For a board of
+ * size n with c colors and w = ceil(n / 64) words per row:
+ *
+ * <ul>
+ * <li>The masks take c * n * w longs (4 KB for 64x64, 32 KB for 256x256
+ * with four colors), plus one int per row for the modification counters.</li>
+ * <li>Checking whether there is any combination takes O(n^2 * c * w) word
+ * operations in the worst case, and usually returns much earlier.</li>
+ * <li>Enumerating combinations takes O(n^2 * c * w + k) where k is the
+ * number of combinations found.</li>
+ * <li>Randomizing a region of area a usually takes O(a) plus a few checks.
+ * In the worst case, when random attempts fail, the generator tries every
+ * rectangle with a corner in the region, which is O(a * n^2).</li>
+ * </ul>
+ */
+public class Board {
+
+    /**
+     * The biggest size a board can have. Bounds are packed using a byte for
+     * every coordinate, so coordinates can't be bigger than 255.
+     */
+    public static final int MAX_SIZE = 256;
+
+    /** The colors, cached because values() creates a new array. */
+    private static final BallColor[] COLORS = BallColor.values();
+
+    private final int size;
+
+    /** How many longs are required to hold a single row. */
+    private final int words;
+
+    /** Number of colors that can be stored in this board. */
+    private final int colors;
+
+    /**
+     * Bitmasks for every color. The mask for the color c at row y is stored
+     * starting at index (c * size + y) * words, least significant bit first.
+     */
+    private final long[] bits;
+
+    /**
+     * Modification counter for every row. It changes every time a ball in
+     * that row changes its color, so that other classes can know which rows
+     * have to be inspected again without having to be notified.
+     */
+    private final int[] rowVersions;
+
+    /** Zobrist hash of the colors of the board, see {@link #getHash()}. */
+    private long hash;
+
+    /** Views for the balls of this board, created when requested. */
+    private Ball[][] balls;
+
+    /** Generator used to randomize regions of this board. */
+    private final BoardGenerator generator;
+
+    public Board(int size) {
+        this(size, new RandomSource());
+    }
+
+    /**
+     * Create a board that uses its own random number generator. Boards
+     * sharing the same seed will generate the same balls.
+     * @param size  the size of the board.
+     * @param random  the generator used to randomize the board.
+     */
+    public Board(int size, RandomSource random) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 1 and " + MAX_SIZE + ", got " + size);
+        }
+        this.size = size;
+        this.words = (size + 63) >>> 6;
+        this.colors = COLORS.length;
+        this.bits = new long[colors * size * words];
+        this.rowVersions = new int[size];
+        generator = new BoardGenerator(this, random);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Fill a region of the board with random colors. After this method
+     * returns the board has at least one combination, as long as there is
+     * some way of coloring the region that makes a combination.
+     * @param bottomLeft  the bottom left corner of the region.
+     * @param upperRight  the upper right corner of the region.
+     */
+    public void randomize(Coordinate bottomLeft, Coordinate upperRight) {
+        generator.generate(bottomLeft.x, bottomLeft.y, upperRight.x, upperRight.y);
+    }
+
+    /**
+     * Fill a region of the board with random colors so that the board
+     * meets the given constraints afterwards. The generator will only try
+     * a bounded number of times, so this method can fail.
+     * @param region  the region that has to be randomized.
+     * @param constraints  what the board should look like.
+     * @return  true if the board meets the constraints.
+     */
+    public boolean randomize(Bounds region, GenerationConstraints constraints) {
+        return generator.generate(region.minX, region.minY, region.maxX, region.maxY, constraints);
+    }
+
+    /**
+     * Fill a region of the board with random colors so that the board
+     * meets the given constraints afterwards.
+     * @param region  the packed bounds of the region.
+     * @param constraints  what the board should look like.
+     * @return  true if the board meets the constraints.
+     * @see #randomize(Bounds, GenerationConstraints)
+     */
+    public boolean randomize(int region, GenerationConstraints constraints) {
+        return generator.generate(Bounds.minX(region), Bounds.minY(region),
+                Bounds.maxX(region), Bounds.maxY(region), constraints);
+    }
+
+    public void randomize() {
+        randomize(new Coordinate(0, 0), new Coordinate(size - 1, size - 1));
+    }
+
+    /**
+     * @return how many balls outside the region were repainted by the last
+     *         call to randomize.
+     * @see BoardGenerator#getRepaintedCount()
+     */
+    public int getRepaintedCount() {
+        return generator.getRepaintedCount();
+    }
+
+    /**
+     * Get a ball outside the region that was repainted by the last call to
+     * randomize. This only happens when no coloring of the region alone
+     * could make a combination, and those balls should be shown to the
+     * player as well as the region.
+     * @param index  the index of the ball, less than {@link #getRepaintedCount()}.
+     * @return  the packed coordinate of the ball, see {@link Coordinate#pack}.
+     */
+    public int getRepainted(int index) {
+        return generator.getRepainted(index);
+    }
+
+    public Ball getBall(int x, int y) {
+        if (balls == null) {
+            balls = new Ball[size][size];
+        }
+        if (balls[x][y] == null) {
+            balls[x][y] = new Ball(this, x, y);
+        }
+        return balls[x][y];
+    }
+
+    /**
+     * Get the color of the ball at the given position.
+     * @param x  the column of the ball.
+     * @param y  the row of the ball.
+     * @return  the color of that ball, or null if it has no color yet.
+     */
+    public BallColor getColor(int x, int y) {
+        int index = getColorIndex(x, y);
+        return index < 0 ? null : COLORS[index];
+    }
+
+    /**
+     * Get the ordinal of the color of the ball at the given position. This
+     * is the allocation free version of {@link #getColor(int, int)}.
+     * @param x  the column of the ball.
+     * @param y  the row of the ball.
+     * @return  the ordinal of the color, or -1 if it has no color yet.
+     */
+    public int getColorIndex(int x, int y) {
+        int offset = y * words + (x >>> 6);
+        long mask = 1L << x;
+        for (int c = 0; c < colors; c++) {
+            if ((bits[c * size * words + offset] & mask) != 0) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Change the color of the ball at the given position.
+     * @param x  the column of the ball.
+     * @param y  the row of the ball.
+     * @param color  the new color, or null to remove the color.
+     */
+    public void setColor(int x, int y, BallColor color) {
+        setColorIndex(x, y, color == null ? -1 : color.ordinal());
+    }
+
+    /**
+     * Change the color of the ball at the given position using the ordinal
+     * of the color. This is the allocation free version of
+     * {@link #setColor(int, int, BallColor)}.
+     * @param x  the column of the ball.
+     * @param y  the row of the ball.
+     * @param color  the ordinal of the new color, or -1 to remove the color.
+     */
+    public void setColorIndex(int x, int y, int color) {
+        int previous = getColorIndex(x, y);
+        if (previous == color) {
+            return;
+        }
+
+        int offset = y * words + (x >>> 6);
+        long mask = 1L << x;
+        if (previous >= 0) {
+            bits[previous * size * words + offset] &= ~mask;
+            hash ^= zobristKey(x, y, previous);
+        }
+        if (color >= 0) {
+            bits[color * size * words + offset] |= mask;
+            hash ^= zobristKey(x, y, color);
+        }
+        rowVersions[y]++;
+    }
+
+    /**
+     * Get the Zobrist hash of this board. The hash is the XOR of a random
+     * key for every ball and its color, and it's updated every time a ball
+     * changes its color, so it's always available without computing
+     * anything. Boards of the same size with the same colors have the
+     * same hash, even if they are different instances.
+     *
+     * @return  the hash of the colors of this board.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the Zobrist key for a ball having a color. Instead of storing a
+     * table of random keys, which would be big for big boards, every key
+     * is derived by scrambling the position, the color and the board size.
+     */
+    private long zobristKey(int x, int y, int color) {
+        long cell = ((long) size << 32) | ((long) (y * size + x) * colors + color);
+        return RandomSource.mix((cell + 1) * 0x9E3779B97F4A7C15L);
+    }
+
+    /** @return a copy of the bitmasks of this board. */
+    long[] copyMasks() {
+        return bits.clone();
+    }
+
+    /**
+     * @param masks  bitmasks obtained through {@link #copyMasks()}.
+     * @return  whether this board has exactly the same bitmasks.
+     */
+    boolean hasMasks(long[] masks) {
+        return Arrays.equals(bits, masks);
+    }
+
+    /**
+     * Check whether every ball of the board has a color. This looks at the
+     * masks a word at a time, so it's much cheaper than reading every ball.
+     * @return  true if there are no empty cells.
+     */
+    boolean isFull() {
+        for (int y = 0; y < size; y++) {
+            for (int word = 0; word < words; word++) {
+                int columns = Math.min(64, size - word * 64);
+                long full = columns == 64 ? -1L : (1L << columns) - 1;
+                long used = 0;
+                for (int c = 0; c < colors; c++) {
+                    used |= getRowMask(c, y, word);
+                }
+                if (used != full) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the modification counter for a row. If two calls to this method
+     * return the same value, no ball in that row has changed in between.
+     * @param y  the row.
+     * @return  the current modification counter for the row.
+     */
+    int getRowVersion(int y) {
+        return rowVersions[y];
+    }
+
+    /** @return how many different colors this board can hold. */
+    int getColorCount() {
+        return colors;
+    }
+
+    /** @return how many longs are used to store a single row. */
+    int getWordCount() {
+        return words;
+    }
+
+    /**
+     * Get a word of the mask for the given color and row.
+     * @param color  the ordinal of the color.
+     * @param y  the row.
+     * @param word  the word of the row, bits [64 * word, 64 * word + 63].
+     * @return  the bitmask for that word.
+     */
+    long getRowMask(int color, int y, int word) {
+        return bits[(color * size + y) * words + word];
+    }
+
+    /**
+     * Find the next column where two rows both have a ball of the given
+     * color. This is the basic building block for finding combinations:
+     * two balls in the same column sharing color on both rows are the
+     * side of a possible rectangle.
+     *
+     * @param color  the ordinal of the color.
+     * @param y1  the first row.
+     * @param y2  the second row.
+     * @param fromX  the first column to take into account.
+     * @return  the first column at least fromX where both rows have that
+     *          color, or -1 if there are no more columns like that.
+     */
+    int nextCommonColumn(int color, int y1, int y2, int fromX) {
+        if (fromX >= size) {
+            return -1;
+        }
+        int first = (color * size + y1) * words;
+        int second = (color * size + y2) * words;
+        int word = fromX >>> 6;
+        long mask = bits[first + word] & bits[second + word] & (-1L << fromX);
+        while (mask == 0) {
+            if (++word == words) {
+                return -1;
+            }
+            mask = bits[first + word] & bits[second + word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Find the previous column where two rows both have a ball of the
+     * given color. This is the same as {@link #nextCommonColumn(int, int,
+     * int, int)} but looking to the left.
+     *
+     * @param color  the ordinal of the color.
+     * @param y1  the first row.
+     * @param y2  the second row.
+     * @param fromX  the last column to take into account.
+     * @return  the last column at most fromX where both rows have that
+     *          color, or -1 if there are no more columns like that.
+     */
+    int previousCommonColumn(int color, int y1, int y2, int fromX) {
+        if (fromX < 0) {
+            return -1;
+        }
+        fromX = Math.min(fromX, size - 1);
+        int first = (color * size + y1) * words;
+        int second = (color * size + y2) * words;
+        int word = fromX >>> 6;
+        long mask = bits[first + word] & bits[second + word] & (-1L >>> (63 - (fromX & 63)));
+        while (mask == 0) {
+            if (--word < 0) {
+                return -1;
+            }
+            mask = bits[first + word] & bits[second + word];
+        }
+        return (word << 6) + 63 - Long.numberOfLeadingZeros(mask);
+    }
+
+    /**
+     * This method should be invoked when four balls have been selected. The
+     * method will evaluate whether the selected balls are valid. If are valid
+     * then that region will be regenerated. The result will also be returned
+     * so that the client code can use the value.
+     *
+     * @param balls  the balls that have been selected.
+     * @return  whether those balls are valid or not
+     */
+    public boolean selection(List<Ball> balls) {
+        // If there aren't 4 balls, this is an error.
+        if (balls.size() != 4)
+            return false;
+
+        // Check that the selection is valid. To be valid, four balls of the
+        // same colour that form a square have to be selected. Otherwise,
+        // it's not valid.
+        Selection selection = new Selection(this, balls);
+        return selection.checkSameColor() && selection.checkSquare();
+    }
+
+    /**
+     * Check whether four selected balls are valid. This is the same check
+     * done by {@link #selection(List)}, but the balls are given as packed
+     * coordinates (see {@link Coordinate#pack(int, int)}), so the check
+     * doesn't allocate anything.
+     *
+     * @return  whether those balls are valid or not
+     */
+    public boolean selection(int first, int second, int third, int fourth) {
+        return Selection.isValid(this, first, second, third, fourth);
+    }
+}
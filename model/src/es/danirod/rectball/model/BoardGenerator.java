@@ -0,0 +1,400 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+/**
+ * Fills regions of a board with random colors making sure that the board
+ * meets some {@link GenerationConstraints} afterwards. By default the board
+ * only needs to have one combination.
+ *
+ * The generator first tries a few plain random fills, which is exactly
+ * what the game has always done, so the colors have the same distribution
+ * as before in practically every call. If none of those fills meets the
+ * constraints, instead of trying again forever the generator plants a
+ * rectangle: it picks four corners, at least one of them inside the
+ * region, and paints the corners inside the region with the color of the
+ * corners outside. If some bounds are excluded and they end up being a
+ * combination, one of their corners is repainted. This gives every call
+ * a bounded cost, even in the cases where the constraints can't be met.
+ *
+ * Sometimes no coloring of the region can make a combination, for
+ * instance when the region is a 2x2 square that is excluded and the rest
+ * of the board is too mixed to complete a rectangle. In that case the
+ * planted rectangle is allowed to repaint some balls outside the region,
+ * as few as possible. Those balls can be asked for afterwards with
+ * {@link #getRepaintedCount()} and {@link #getRepainted(int)}, so that
+ * they can be shown to the player.
+ *
+ * Generation can still fail when the excluded bounds are the only
+ * rectangle that can be planted, as on a 2x2 board whose whole area is
+ * excluded, when the board has a single color and some bounds are
+ * excluded, or when more combinations are required than the attempts
+ * manage to make.
+ */
+public class BoardGenerator {
+
+    /** How many plain random fills are tried before planting a rectangle. */
+    private static final int RANDOM_ATTEMPTS = 8;
+
+    /** How many fills with a planted rectangle are tried. */
+    private static final int PLANT_ROUNDS = 8;
+
+    /** How many random rectangles are tried when planting one. */
+    private static final int PLANT_ATTEMPTS = 64;
+
+    private final Board board;
+
+    /** Generator for the random colors. */
+    private final RandomSource random;
+
+    /** Cursor used to count the combinations of the board. */
+    private final CombinationCursor cursor;
+
+    /** Corners of the rectangle being planted. */
+    private final int[] xs = new int[4], ys = new int[4];
+
+    /**
+     * Packed coordinates of the balls outside the region that have been
+     * repainted. Every round repaints three of them at most.
+     */
+    private final int[] repainted = new int[PLANT_ROUNDS * 3];
+
+    private int repaintedCount = 0;
+
+    public BoardGenerator(Board board, RandomSource random) {
+        this.board = board;
+        this.random = random;
+        this.cursor = new CombinationCursor(board);
+    }
+
+    /**
+     * Randomize a region of the board. After calling this method the board
+     * will have at least one combination, unless the board is smaller than
+     * 2x2. Balls outside the region are only repainted if no coloring of
+     * the region can make a combination, see {@link #getRepainted(int)}.
+     *
+     * @param minX  left column of the region.
+     * @param minY  bottom row of the region.
+     * @param maxX  right column of the region.
+     * @param maxY  upper row of the region.
+     * @return  true if the board has at least one combination.
+     */
+    public boolean generate(int minX, int minY, int maxX, int maxY) {
+        return generate(minX, minY, maxX, maxY, 1, Bounds.NONE);
+    }
+
+    /**
+     * Randomize a region of the board so that the board meets the given
+     * constraints. If after a bounded number of attempts the constraints
+     * can't be met, this method gives up and returns false. The board will
+     * still have the colors of the last attempt. See the description of
+     * this class for the cases where this can happen.
+     *
+     * @param minX  left column of the region.
+     * @param minY  bottom row of the region.
+     * @param maxX  right column of the region.
+     * @param maxY  upper row of the region.
+     * @param constraints  what the board should look like.
+     * @return  true if the board meets the constraints.
+     */
+    public boolean generate(int minX, int minY, int maxX, int maxY, GenerationConstraints constraints) {
+        return generate(minX, minY, maxX, maxY, constraints.getMinCombinations(), constraints.getExcluded());
+    }
+
+    /** @return how many balls outside the region were repainted by the last call. */
+    public int getRepaintedCount() {
+        return repaintedCount;
+    }
+
+    /**
+     * Get a ball outside the region that had to be repainted by the last
+     * call to generate, because no coloring of the region alone could
+     * make a combination.
+     * @param index  the index of the ball, less than {@link #getRepaintedCount()}.
+     * @return  the packed coordinate of the ball, see {@link Coordinate#pack}.
+     */
+    public int getRepainted(int index) {
+        if (index < 0 || index >= repaintedCount) {
+            throw new IndexOutOfBoundsException("Repainted ball " + index + " of " + repaintedCount);
+        }
+        return repainted[index];
+    }
+
+    private boolean generate(int minX, int minY, int maxX, int maxY, int minCombinations, int excluded) {
+        repaintedCount = 0;
+        for (int attempt = 0; attempt < RANDOM_ATTEMPTS; attempt++) {
+            fill(minX, minY, maxX, maxY);
+            if (isValid(minCombinations, excluded)) {
+                return true;
+            }
+        }
+
+        for (int round = 0; round < PLANT_ROUNDS; round++) {
+            fill(minX, minY, maxX, maxY);
+            if (!plant(minX, minY, maxX, maxY, excluded)) {
+                // If nothing can be planted on a fresh fill, the region
+                // can't hold a rectangle on its own, so let the rectangle
+                // repaint balls outside the region.
+                if (isValid(minCombinations, excluded)) {
+                    return true;
+                }
+                if (!plantAcross(minX, minY, maxX, maxY, excluded)) {
+                    return false;
+                }
+            }
+            if (breakExcluded(minX, minY, maxX, maxY, excluded) && isValid(minCombinations, excluded)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Paint every ball in the region using random colors. */
+    private void fill(int minX, int minY, int maxX, int maxY) {
+        int colors = board.getColorCount();
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                board.setColorIndex(x, y, random.nextInt(colors));
+            }
+        }
+    }
+
+    /**
+     * Check whether the board meets the constraints.
+     * @param minCombinations  how many combinations are required.
+     * @param excluded  packed bounds that can't be a combination.
+     * @return  true if the board is valid.
+     */
+    private boolean isValid(int minCombinations, int excluded) {
+        if (excluded != Bounds.NONE && isCombination(excluded)) {
+            return false;
+        }
+        if (minCombinations == 1) {
+            return CombinationFinder.hasAnyCombination(board);
+        }
+
+        // Count combinations, but only until there are enough of them.
+        int found = 0;
+        cursor.reset();
+        while (found < minCombinations && cursor.next()) {
+            found++;
+        }
+        return found >= minCombinations;
+    }
+
+    /** @return whether the four corners of these bounds share color. */
+    private boolean isCombination(int bounds) {
+        int color = board.getColorIndex(Bounds.minX(bounds), Bounds.minY(bounds));
+        return color >= 0
+                && board.getColorIndex(Bounds.maxX(bounds), Bounds.minY(bounds)) == color
+                && board.getColorIndex(Bounds.minX(bounds), Bounds.maxY(bounds)) == color
+                && board.getColorIndex(Bounds.maxX(bounds), Bounds.maxY(bounds)) == color;
+    }
+
+    /**
+     * If the excluded bounds are a combination, repaint one of their
+     * corners that is inside the region and that is not part of the
+     * rectangle that has just been planted.
+     * @return  false if the excluded bounds are still a combination.
+     */
+    private boolean breakExcluded(int minX, int minY, int maxX, int maxY, int excluded) {
+        if (excluded == Bounds.NONE || !isCombination(excluded)) {
+            return true;
+        }
+        int colors = board.getColorCount();
+        if (colors < 2) {
+            return false;
+        }
+        for (int corner = 0; corner < 4; corner++) {
+            int x = (corner & 1) == 0 ? Bounds.minX(excluded) : Bounds.maxX(excluded);
+            int y = (corner & 2) == 0 ? Bounds.minY(excluded) : Bounds.maxY(excluded);
+            if (inRegion(x, y, minX, minY, maxX, maxY) && !isPlanted(x, y)) {
+                int color = board.getColorIndex(x, y);
+                board.setColorIndex(x, y, (color + 1 + random.nextInt(colors - 1)) % colors);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return whether the ball is a corner of the planted rectangle. */
+    private boolean isPlanted(int x, int y) {
+        for (int corner = 0; corner < 4; corner++) {
+            if (xs[corner] == x && ys[corner] == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plant a rectangle having at least one corner inside the region. Some
+     * random rectangles are tried first. If none of them can be planted,
+     * every rectangle with a corner in the region is tried.
+     * @return  true if a rectangle has been planted.
+     */
+    private boolean plant(int minX, int minY, int maxX, int maxY, int excluded) {
+        int size = board.getSize();
+        if (size < 2) {
+            return false;
+        }
+
+        for (int attempt = 0; attempt < PLANT_ATTEMPTS; attempt++) {
+            int x1 = minX + random.nextInt(maxX - minX + 1);
+            int y1 = minY + random.nextInt(maxY - minY + 1);
+            int x2 = (x1 + 1 + random.nextInt(size - 1)) % size;
+            int y2 = (y1 + 1 + random.nextInt(size - 1)) % size;
+            if (plant(x1, y1, x2, y2, minX, minY, maxX, maxY, excluded)) {
+                return true;
+            }
+        }
+
+        for (int x1 = minX; x1 <= maxX; x1++) {
+            for (int y1 = minY; y1 <= maxY; y1++) {
+                for (int x2 = 0; x2 < size; x2++) {
+                    for (int y2 = 0; y2 < size; y2++) {
+                        if (x1 != x2 && y1 != y2 && plant(x1, y1, x2, y2, minX, minY, maxX, maxY, excluded)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plant a rectangle having one corner inside the region, repainting the
+     * balls outside the region if needed. This is only used when
+     * {@link #plant(int, int, int, int, int)} fails, so it doesn't change
+     * the distribution of colors in the common case. The second column is
+     * taken from the region when possible, so only the two corners on the
+     * other row are outside and just one of them has to be repainted.
+     * @return  true if a rectangle has been planted, false if the board is
+     *          smaller than 2x2 or the excluded bounds are the only
+     *          rectangle with a corner in the region.
+     */
+    private boolean plantAcross(int minX, int minY, int maxX, int maxY, int excluded) {
+        int size = board.getSize();
+        if (size < 2) {
+            return false;
+        }
+
+        int width = maxX - minX + 1;
+        for (int attempt = 0; attempt < PLANT_ATTEMPTS; attempt++) {
+            int x1 = minX + random.nextInt(width);
+            int y1 = minY + random.nextInt(maxY - minY + 1);
+            int x2 = width > 1
+                    ? minX + (x1 - minX + 1 + random.nextInt(width - 1)) % width
+                    : (x1 + 1 + random.nextInt(size - 1)) % size;
+            int y2 = (y1 + 1 + random.nextInt(size - 1)) % size;
+            if (paint(x1, y1, x2, y2, minX, minY, maxX, maxY, excluded)) {
+                return true;
+            }
+        }
+
+        // Any pair of different columns and rows other than the excluded
+        // bounds will do. There is one on every board bigger than 2x2.
+        for (int x2 = 0; x2 < size; x2++) {
+            for (int y2 = 0; y2 < size; y2++) {
+                if (x2 != minX && y2 != minY && paint(minX, minY, x2, y2, minX, minY, maxX, maxY, excluded)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plant the rectangle with corners at (x1, y1) and (x2, y2), painting
+     * every corner with the color of the corner at (x1, y2). Corners outside
+     * the region that change their color are remembered.
+     * @return  false if the rectangle is the excluded one.
+     */
+    private boolean paint(int x1, int y1, int x2, int y2, int minX, int minY, int maxX, int maxY, int excluded) {
+        if (Bounds.pack(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2)) == excluded) {
+            return false;
+        }
+        int color = board.getColorIndex(x1, y2);
+        if (color < 0) {
+            color = random.nextInt(board.getColorCount());
+        }
+        for (int corner = 0; corner < 4; corner++) {
+            xs[corner] = (corner & 1) == 0 ? x1 : x2;
+            ys[corner] = (corner & 2) == 0 ? y1 : y2;
+            if (board.getColorIndex(xs[corner], ys[corner]) != color) {
+                board.setColorIndex(xs[corner], ys[corner], color);
+                if (!inRegion(xs[corner], ys[corner], minX, minY, maxX, maxY)) {
+                    addRepainted(Coordinate.pack(xs[corner], ys[corner]));
+                }
+            }
+        }
+        return true;
+    }
+
+    private void addRepainted(int coordinate) {
+        for (int i = 0; i < repaintedCount; i++) {
+            if (repainted[i] == coordinate) {
+                return;
+            }
+        }
+        repainted[repaintedCount++] = coordinate;
+    }
+
+    /**
+     * Try to plant the rectangle with corners at (x1, y1) and (x2, y2).
+     * @return  true if the rectangle has been planted.
+     */
+    private boolean plant(int x1, int y1, int x2, int y2, int minX, int minY, int maxX, int maxY, int excluded) {
+        if (Bounds.pack(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2)) == excluded) {
+            return false;
+        }
+
+        // Every corner outside the region has to share the same color,
+        // which will be the color of the rectangle.
+        int color = -1;
+        for (int corner = 0; corner < 4; corner++) {
+            int x = (corner & 1) == 0 ? x1 : x2;
+            int y = (corner & 2) == 0 ? y1 : y2;
+            if (!inRegion(x, y, minX, minY, maxX, maxY)) {
+                int cornerColor = board.getColorIndex(x, y);
+                if (cornerColor < 0 || (color >= 0 && color != cornerColor)) {
+                    return false;
+                }
+                color = cornerColor;
+            }
+        }
+
+        // If every corner is inside the region, any color is fine.
+        if (color < 0) {
+            color = board.getColorIndex(x1, y1);
+        }
+        for (int corner = 0; corner < 4; corner++) {
+            xs[corner] = (corner & 1) == 0 ? x1 : x2;
+            ys[corner] = (corner & 2) == 0 ? y1 : y2;
+            if (inRegion(xs[corner], ys[corner], minX, minY, maxX, maxY)) {
+                board.setColorIndex(xs[corner], ys[corner], color);
+            }
+        }
+        return true;
+    }
+
+    private static boolean inRegion(int x, int y, int minX, int minY, int maxX, int maxY) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+}
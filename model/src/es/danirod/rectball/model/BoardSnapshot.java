@@ -0,0 +1,171 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary format for boards. A snapshot is a header byte with the
+ * size of the board minus one, followed by the color index of every ball,
+ * row by row, packed with {@link ColorPacking#BITS_PER_CELL} bits per ball
+ * starting from the lowest bits of every byte. With the current four colors
+ * a 6x6 board takes 9 bytes of colors plus the header.
+ *
+ * This is the format to use whenever a board has to be stored or sent
+ * somewhere: replays, saved games or puzzle databases.
+ */
+public final class BoardSnapshot {
+
+    private BoardSnapshot() {
+
+    }
+
+    /**
+     * Get how many bytes does the snapshot of a board take.
+     * @param size  the size of the board.
+     * @return  the length of the snapshot, including the header.
+     */
+    public static int getLength(int size) {
+        if (size < 1 || size > Board.MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid board size: " + size);
+        }
+        return 1 + (size * size * ColorPacking.BITS_PER_CELL + 7) / 8;
+    }
+
+    /**
+     * Encode a board.
+     * @param board  the board to encode. It must not have empty cells.
+     * @return  the snapshot of the board.
+     */
+    public static byte[] encode(Board board) {
+        ByteBuffer buffer = ByteBuffer.allocate(getLength(board.getSize()));
+        encode(board, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Encode a board into a buffer, starting at the position of the buffer.
+     * The position of the buffer is moved past the snapshot.
+     *
+     * @param board  the board to encode. It must not have empty cells.
+     * @param buffer  the buffer that will receive the snapshot.
+     * @throws BufferOverflowException  if the snapshot doesn't fit.
+     * @throws IllegalArgumentException  if the board has empty cells.
+     *         Nothing is written to the buffer in that case.
+     */
+    public static void encode(Board board, ByteBuffer buffer) {
+        int size = board.getSize();
+        if (buffer.remaining() < getLength(size)) {
+            throw new BufferOverflowException();
+        }
+        if (!board.isFull()) {
+            throw new IllegalArgumentException("Cannot encode a board with empty cells");
+        }
+        buffer.put((byte) (size - 1));
+
+        int pending = 0, pendingBits = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                pending |= board.getColorIndex(x, y) << pendingBits;
+                pendingBits += ColorPacking.BITS_PER_CELL;
+                if (pendingBits >= 8) {
+                    buffer.put((byte) pending);
+                    pending >>>= 8;
+                    pendingBits -= 8;
+                }
+            }
+        }
+        if (pendingBits > 0) {
+            buffer.put((byte) pending);
+        }
+    }
+
+    /**
+     * Decode a snapshot into a new board.
+     * @param snapshot  the snapshot.
+     * @return  the decoded board.
+     */
+    public static Board decode(byte[] snapshot) {
+        return decode(ByteBuffer.wrap(snapshot));
+    }
+
+    /**
+     * Decode a snapshot into a new board, reading from the position of the
+     * buffer. The position of the buffer is moved past the snapshot.
+     *
+     * @param buffer  the buffer that holds the snapshot.
+     * @return  the decoded board.
+     * @throws BufferUnderflowException  if the snapshot is truncated.
+     */
+    public static Board decode(ByteBuffer buffer) {
+        Board board = new Board(peekSize(buffer));
+        decode(buffer, board);
+        return board;
+    }
+
+    /**
+     * Decode a snapshot into an existing board, reading from the position of
+     * the buffer. The position of the buffer is moved past the snapshot.
+     * Reusing the same board avoids allocating when many snapshots are read.
+     *
+     * @param buffer  the buffer that holds the snapshot.
+     * @param board  the board that will receive the colors. It must have
+     *               the same size as the encoded board.
+     * @throws BufferUnderflowException  if the snapshot is truncated.
+     */
+    public static void decode(ByteBuffer buffer, Board board) {
+        int size = peekSize(buffer);
+        if (size != board.getSize()) {
+            throw new IllegalArgumentException("Snapshot of a " + size + "x" + size + " board");
+        }
+        if (buffer.remaining() < getLength(size)) {
+            throw new BufferUnderflowException();
+        }
+        buffer.get();
+
+        int mask = (1 << ColorPacking.BITS_PER_CELL) - 1;
+        int pending = 0, pendingBits = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (pendingBits < ColorPacking.BITS_PER_CELL) {
+                    pending |= (buffer.get() & 0xFF) << pendingBits;
+                    pendingBits += 8;
+                }
+                int color = pending & mask;
+                pending >>>= ColorPacking.BITS_PER_CELL;
+                pendingBits -= ColorPacking.BITS_PER_CELL;
+                ColorPacking.checkColor(color);
+                board.setColorIndex(x, y, color);
+            }
+        }
+    }
+
+    /**
+     * Read the size of an encoded board without moving the buffer.
+     * @param buffer  the buffer that holds the snapshot at its position.
+     * @return  the size of the encoded board.
+     */
+    public static int peekSize(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) {
+            throw new BufferUnderflowException();
+        }
+        return (buffer.get(buffer.position()) & 0xFF) + 1;
+    }
+}
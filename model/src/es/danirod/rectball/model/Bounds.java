@@ -0,0 +1,132 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import java.util.List;
+
+/**
+ * Rectangular region of a board. Bounds can also be packed into a single
+ * int, using eight bits for each coordinate (minX, minY, maxX, maxY from
+ * the most significant byte to the least significant one), so that code
+ * in tight loops can pass combinations around without allocating objects.
+ */
+public class Bounds {
+
+    /**
+     * Packed value used to represent the absence of bounds. It can't
+     * collide with real bounds because minX would be greater than maxX.
+     */
+    public static final int NONE = -1;
+
+    public static int pack(int minX, int minY, int maxX, int maxY) {
+        return (minX << 24) | (minY << 16) | (maxX << 8) | maxY;
+    }
+
+    public static int minX(int packed) {
+        return packed >>> 24;
+    }
+
+    public static int minY(int packed) {
+        return (packed >>> 16) & 0xFF;
+    }
+
+    public static int maxX(int packed) {
+        return (packed >>> 8) & 0xFF;
+    }
+
+    public static int maxY(int packed) {
+        return packed & 0xFF;
+    }
+
+    public static Bounds unpack(int packed) {
+        return new Bounds(minX(packed), minY(packed), maxX(packed), maxY(packed));
+    }
+
+    /**
+     * Get the smallest bounds containing some balls.
+     * @param a  packed coordinate of the first ball, see {@link Coordinate#pack}.
+     * @param b  packed coordinate of the second ball.
+     * @param c  packed coordinate of the third ball.
+     * @param d  packed coordinate of the fourth ball.
+     * @return  the packed bounds containing the four balls.
+     */
+    public static int fromCoordinates(int a, int b, int c, int d) {
+        int minX = Math.min(Math.min(Coordinate.unpackX(a), Coordinate.unpackX(b)),
+                Math.min(Coordinate.unpackX(c), Coordinate.unpackX(d)));
+        int maxX = Math.max(Math.max(Coordinate.unpackX(a), Coordinate.unpackX(b)),
+                Math.max(Coordinate.unpackX(c), Coordinate.unpackX(d)));
+        int minY = Math.min(Math.min(Coordinate.unpackY(a), Coordinate.unpackY(b)),
+                Math.min(Coordinate.unpackY(c), Coordinate.unpackY(d)));
+        int maxY = Math.max(Math.max(Coordinate.unpackY(a), Coordinate.unpackY(b)),
+                Math.max(Coordinate.unpackY(c), Coordinate.unpackY(d)));
+        return pack(minX, minY, maxX, maxY);
+    }
+
+    public static Bounds fromBallList(List<Ball> balls) {
+        int minX, minY, maxX, maxY;
+        minX = minY = Integer.MAX_VALUE;
+        maxX = maxY = Integer.MIN_VALUE;
+        for (Ball ball : balls) {
+            minX = Math.min(minX, ball.getX());
+            minY = Math.min(minY, ball.getY());
+            maxX = Math.max(maxX, ball.getX());
+            maxY = Math.max(maxY, ball.getY());
+        }
+        return new Bounds(minX, minY, maxX, maxY);
+    }
+
+    public int minX, minY, maxX, maxY;
+
+    public Bounds(int minX, int minY, int maxX, int maxY) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    public int pack() {
+        return pack(minX, minY, maxX, maxY);
+    }
+
+    public boolean inBounds(int x, int y) {
+        return (x >= minX && x <= maxX) && (y >= minY && y <= maxY);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Bounds bounds = (Bounds) o;
+
+        if (minX != bounds.minX) return false;
+        if (minY != bounds.minY) return false;
+        if (maxX != bounds.maxX) return false;
+        return maxY == bounds.maxY;
+
+    }
+
+    @Override
+    public int hashCode() {
+        int result = minX;
+        result = 31 * result + minY;
+        result = 31 * result + maxX;
+        result = 31 * result + maxY;
+        return result;
+    }
+}
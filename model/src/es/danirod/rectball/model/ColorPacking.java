@@ -0,0 +1,108 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+/**
+ * Helpers to pack ball colors using as few bits per cell as the amount of
+ * colors requires: two bits while there are four colors, widening on its
+ * own if more colors are added to {@link BallColor}. Cells never straddle
+ * two words, so reading a cell is a shift and a mask.
+ */
+final class ColorPacking {
+
+    /** The colors, cached because values() creates a new array. */
+    private static final BallColor[] VALUES = BallColor.values();
+
+    /** How many colors there are. */
+    static final int COLORS = VALUES.length;
+
+    /** How many bits are required to store a color. */
+    static final int BITS_PER_CELL = bitsPerCell(COLORS);
+
+    /** How many cells fit in a single long. */
+    static final int CELLS_PER_WORD = 64 / BITS_PER_CELL;
+
+    private static final long CELL_MASK = (1L << BITS_PER_CELL) - 1;
+
+    private ColorPacking() {
+
+    }
+
+    /**
+     * Get how many bits are required to store a color index.
+     * @param colors  how many different colors there are.
+     * @return  bits per cell, at least one.
+     */
+    static int bitsPerCell(int colors) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(colors - 1));
+    }
+
+    /**
+     * Get how many longs are required to store some cells.
+     * @param cells  how many cells have to be stored.
+     * @return  how many longs are required.
+     */
+    static int wordsFor(int cells) {
+        return (cells + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+    }
+
+    /**
+     * Read a cell.
+     * @param data  the packed data.
+     * @param offset  the index of the first word of the block of cells.
+     * @param cell  the cell to read, relative to the offset.
+     * @return  the color index stored in that cell.
+     */
+    static int get(long[] data, int offset, int cell) {
+        long word = data[offset + cell / CELLS_PER_WORD];
+        return (int) ((word >>> (cell % CELLS_PER_WORD * BITS_PER_CELL)) & CELL_MASK);
+    }
+
+    /**
+     * Write a cell.
+     * @param data  the packed data.
+     * @param offset  the index of the first word of the block of cells.
+     * @param cell  the cell to write, relative to the offset.
+     * @param color  the color index to store in that cell.
+     */
+    static void set(long[] data, int offset, int cell, int color) {
+        int word = offset + cell / CELLS_PER_WORD;
+        int shift = cell % CELLS_PER_WORD * BITS_PER_CELL;
+        data[word] = (data[word] & ~(CELL_MASK << shift)) | ((long) color << shift);
+    }
+
+    /**
+     * Get the color for a color index.
+     * @param color  the color index.
+     * @return  the color.
+     */
+    static BallColor toColor(int color) {
+        return VALUES[color];
+    }
+
+    /**
+     * Check that a color index can be stored in a cell.
+     * @param color  the color index.
+     * @throws IllegalArgumentException  if it's not a valid color index.
+     */
+    static void checkColor(int color) {
+        if (color < 0 || color >= COLORS) {
+            throw new IllegalArgumentException("Invalid color index: " + color);
+        }
+    }
+}
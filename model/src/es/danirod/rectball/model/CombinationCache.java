@@ -0,0 +1,143 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the combinations of boards that have already been
+ * inspected. Entries are looked up by the Zobrist hash of the board, so a
+ * repeated position costs a single lookup instead of a full search. When
+ * the cache is full, the least recently used entry is discarded.
+ *
+ * Every entry keeps a copy of the board it was computed for, and lookups
+ * compare it with the board, so a hash collision can never return the
+ * combinations of a different board. This class is thread safe.
+ */
+public class CombinationCache {
+
+    /** Everything the cache knows about a board. */
+    public static class Summary {
+
+        /** Copy of the board, used to detect hash collisions. */
+        private final long[] masks;
+
+        private final int[] combinations;
+
+        private final int best;
+
+        private Summary(Board board) {
+            this.masks = board.copyMasks();
+            this.combinations = CombinationFinder.findAll(board);
+            this.best = CombinationFinder.bestCombination(board);
+        }
+
+        /**
+         * Get the packed bounds of every combination. The array is shared
+         * by every user of the cache, so it must not be modified.
+         * @return  the packed bounds of every combination.
+         */
+        public int[] getCombinations() {
+            return combinations;
+        }
+
+        /** @return the packed bounds of the biggest combination, or Bounds.NONE. */
+        public int getBestCombination() {
+            return best;
+        }
+
+        /** @return how many combinations are there. */
+        public int getCount() {
+            return combinations.length;
+        }
+    }
+
+    private final Map<Long, Summary> entries;
+
+    private long hits, misses;
+
+    /**
+     * Create a new cache.
+     * @param capacity  how many boards can the cache remember.
+     */
+    public CombinationCache(final int capacity) {
+        entries = new LinkedHashMap<Long, Summary>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Summary> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the summary for a board. If the board isn't in the cache, it is
+     * inspected and added to the cache. The board is inspected without
+     * holding the lock of the cache, so other threads can keep using the
+     * cache while a big board is being searched.
+     * @param board  the board.
+     * @return  the summary of the combinations of that board.
+     */
+    public Summary get(Board board) {
+        return get(board, board.getHash());
+    }
+
+    /**
+     * Get the summary for a board using the given hash. This lets tests
+     * simulate collisions between boards.
+     */
+    Summary get(Board board, long hash) {
+        Long key = hash;
+        synchronized (this) {
+            Summary summary = entries.get(key);
+            if (summary != null && board.hasMasks(summary.masks)) {
+                hits++;
+                return summary;
+            }
+            misses++;
+        }
+
+        Summary summary = new Summary(board);
+        synchronized (this) {
+            // Another thread might have added the same board meanwhile.
+            // Keep that summary so every user gets the same one.
+            Summary current = entries.get(key);
+            if (current != null && board.hasMasks(current.masks)) {
+                return current;
+            }
+            entries.put(key, summary);
+        }
+        return summary;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
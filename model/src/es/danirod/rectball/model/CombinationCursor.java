@@ -0,0 +1,104 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+/**
+ * Cursor that walks the combinations of a board one by one. The cursor
+ * doesn't precompute anything: every call to {@link #next()} advances to
+ * the following combination, so the caller can stop as soon as it has
+ * found what it needs. Every combination is visited exactly once, and the
+ * cursor can be reset and reused, so walking a board doesn't allocate.
+ *
+ * Combinations are visited sorted by bottom row, then by upper row, then
+ * by color, then by left column and finally by right column. If the board
+ * changes while it's being walked, the cursor has to be reset.
+ */
+public class CombinationCursor {
+
+    private final Board board;
+
+    private final int size;
+
+    private final int colors;
+
+    /** Rows, color and columns for the current combination. */
+    private int y1, y2, color, x1, x2;
+
+    public CombinationCursor(Board board) {
+        this.board = board;
+        this.size = board.getSize();
+        this.colors = board.getColorCount();
+        reset();
+    }
+
+    /**
+     * Rewind the cursor so that the next call to {@link #next()} returns
+     * the first combination of the board again.
+     */
+    public void reset() {
+        y1 = color = 0;
+        y2 = 1;
+        x1 = x2 = size > 1 ? board.nextCommonColumn(0, 0, 1, 0) : -1;
+    }
+
+    /**
+     * Advance to the next combination.
+     * @return  true if there is a combination, false if there are no more.
+     */
+    public boolean next() {
+        while (y2 < size) {
+            if (x1 >= 0) {
+                // Pair the left column with the next right column.
+                x2 = board.nextCommonColumn(color, y1, y2, x2 + 1);
+                if (x2 >= 0) {
+                    return true;
+                }
+
+                // No more right columns, so move the left column.
+                x1 = x2 = board.nextCommonColumn(color, y1, y2, x1 + 1);
+                if (x1 >= 0) {
+                    continue;
+                }
+            }
+
+            // Nothing else for these rows and color. Try the next color or
+            // the next pair of rows.
+            if (++color == colors) {
+                color = 0;
+                if (++y2 == size) {
+                    y1++;
+                    y2 = y1 + 1;
+                }
+            }
+            if (y2 < size) {
+                x1 = x2 = board.nextCommonColumn(color, y1, y2, 0);
+            }
+        }
+        return false;
+    }
+
+    /** @return the bounds of the current combination, packed. */
+    public int getBounds() {
+        return Bounds.pack(x1, y1, x2, y2);
+    }
+
+    /** @return the ordinal of the color of the current combination. */
+    public int getColor() {
+        return color;
+    }
+}
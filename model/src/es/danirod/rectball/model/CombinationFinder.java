@@ -0,0 +1,331 @@
+package es.danirod.rectball.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds the combinations available on a board. Combinations are calculated
+ * lazily when they are requested, reading the board as it is at that
+ * moment, and every combination is reported only once. Code that only
+ * needs some combinations should use {@link #forEach(CombinationVisitor)}
+ * or a {@link CombinationCursor} so that it can stop as soon as it has
+ * found what it needs without paying for every rectangle on the board.
+ */
+public class CombinationFinder {
+
+    /**
+     * Callback used to walk the combinations of a board without building
+     * a list. Bounds are given packed, see {@link Bounds#pack()}.
+     */
+    public interface CombinationVisitor {
+
+        /**
+         * This method is called once for every combination found.
+         * @param bounds  the bounds of the combination, packed.
+         * @return  true to keep looking, false to stop.
+         */
+        boolean visit(int bounds);
+
+    }
+
+    /**
+     * Boards of at least this size are searched in parallel when every
+     * combination is requested. Smaller boards are faster to search in a
+     * single thread than to split.
+     */
+    public static final int PARALLEL_THRESHOLD = 64;
+
+    private final Board board;
+
+    public CombinationFinder(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * Walk every combination of the board, giving them to the visitor
+     * until there are no more combinations or the visitor asks to stop.
+     *
+     * @param board  the board that has to be inspected.
+     * @param visitor  the visitor that receives the combinations.
+     * @return  false if the visitor stopped the walk, true otherwise.
+     */
+    public static boolean forEach(Board board, CombinationVisitor visitor) {
+        return forEach(board, 0, board.getSize() - 1, visitor);
+    }
+
+    /**
+     * Walk the combinations whose bottom row is in the given range. Every
+     * combination belongs to a single bottom row, so walking disjoint
+     * ranges never gives the same combination twice.
+     *
+     * @param board  the board that has to be inspected.
+     * @param fromRow  the first bottom row, inclusive.
+     * @param toRow  the last bottom row, exclusive.
+     * @param visitor  the visitor that receives the combinations.
+     * @return  false if the visitor stopped the walk, true otherwise.
+     */
+    static boolean forEach(Board board, int fromRow, int toRow, CombinationVisitor visitor) {
+        int size = board.getSize();
+        for (int y1 = fromRow; y1 < toRow; y1++) {
+            for (int y2 = y1 + 1; y2 < size; y2++) {
+                if (!forEachInRows(board, y1, y2, visitor)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walk the combinations having their corners in the given rows.
+     *
+     * @param board  the board that has to be inspected.
+     * @param y1  the bottom row.
+     * @param y2  the upper row.
+     * @param visitor  the visitor that receives the combinations.
+     * @return  false if the visitor stopped the walk, true otherwise.
+     */
+    static boolean forEachInRows(Board board, int y1, int y2, CombinationVisitor visitor) {
+        // Every combination is made of two rows sharing the same color on
+        // two different columns. For every color, the columns where both
+        // rows have that color are found by ANDing the masks of both rows.
+        // Any pair of those columns is a rectangle.
+        int colors = board.getColorCount();
+        for (int color = 0; color < colors; color++) {
+            int x1 = board.nextCommonColumn(color, y1, y2, 0);
+            while (x1 >= 0) {
+                int x2 = board.nextCommonColumn(color, y1, y2, x1 + 1);
+                while (x2 >= 0) {
+                    if (!visitor.visit(Bounds.pack(x1, y1, x2, y2))) {
+                        return false;
+                    }
+                    x2 = board.nextCommonColumn(color, y1, y2, x2 + 1);
+                }
+                x1 = board.nextCommonColumn(color, y1, y2, x1 + 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether there is at least one combination on the board. Unlike
+     * building a finder, this method doesn't enumerate every combination:
+     * it returns as soon as two rows share a color on two columns, and it
+     * doesn't allocate anything, so it's cheap enough to be called in
+     * loops that have to generate many boards until a valid one is found.
+     *
+     * @param board  the board that has to be checked.
+     * @return  true if there is at least one combination on the board.
+     */
+    public static boolean hasAnyCombination(Board board) {
+        int size = board.getSize();
+        int colors = board.getColorCount();
+        int words = board.getWordCount();
+        for (int y1 = 0; y1 < size - 1; y1++) {
+            for (int y2 = y1 + 1; y2 < size; y2++) {
+                for (int color = 0; color < colors; color++) {
+                    // We need two common columns. They can be both on the
+                    // same word or be on different words of the row.
+                    boolean found = false;
+                    for (int word = 0; word < words; word++) {
+                        long mask = board.getRowMask(color, y1, word) & board.getRowMask(color, y2, word);
+                        if (mask != 0) {
+                            if (found || (mask & (mask - 1)) != 0) {
+                                return true;
+                            }
+                            found = true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walk every combination of this board. See
+     * {@link #forEach(Board, CombinationVisitor)}.
+     */
+    public boolean forEach(CombinationVisitor visitor) {
+        return forEach(board, visitor);
+    }
+
+    /**
+     * Find every combination of the board. Boards of at least
+     * {@link #PARALLEL_THRESHOLD} are split in bands of rows and searched
+     * in parallel using a fork/join pool. The result is the same in both
+     * cases, including the order.
+     *
+     * @param board  the board that has to be inspected.
+     * @return  the packed bounds of every combination.
+     */
+    public static int[] findAll(Board board) {
+        if (board.getSize() >= PARALLEL_THRESHOLD) {
+            return ParallelCombinationSearch.search(board);
+        }
+
+        Collector collector = new Collector();
+        forEach(board, collector);
+        return collector.toArray();
+    }
+
+    /** Visitor that keeps every combination it visits in an array. */
+    static class Collector implements CombinationVisitor {
+
+        private int[] found = new int[16];
+
+        private int count = 0;
+
+        @Override
+        public boolean visit(int bounds) {
+            if (count == found.length) {
+                found = Arrays.copyOf(found, count * 2);
+            }
+            found[count++] = bounds;
+            return true;
+        }
+
+        /** @return the packed bounds of every visited combination. */
+        int[] toArray() {
+            return Arrays.copyOf(found, count);
+        }
+    }
+
+    /**
+     * Find the combination with the biggest area, which is the one that
+     * gives more points. Instead of listing every combination, for every
+     * pair of rows and color only the leftmost and rightmost common columns
+     * are checked, since they make the widest rectangle for those rows.
+     * Pairs of rows are visited from the tallest to the shortest, so the
+     * search stops as soon as no shorter pair could beat the best one.
+     *
+     * @param board  the board that has to be inspected.
+     * @return  the packed bounds of the biggest combination, or
+     *          Bounds.NONE if there are no combinations.
+     */
+    public static int bestCombination(Board board) {
+        int size = board.getSize();
+        int colors = board.getColorCount();
+        int best = Bounds.NONE;
+        int bestArea = 0;
+        for (int height = size; height >= 2 && height * size > bestArea; height--) {
+            for (int y1 = 0; y1 + height <= size; y1++) {
+                int y2 = y1 + height - 1;
+                for (int color = 0; color < colors; color++) {
+                    int x1 = board.nextCommonColumn(color, y1, y2, 0);
+                    if (x1 < 0) {
+                        continue;
+                    }
+                    int x2 = board.previousCommonColumn(color, y1, y2, size - 1);
+                    int area = height * (x2 - x1 + 1);
+                    if (x2 > x1 && area > bestArea) {
+                        bestArea = area;
+                        best = Bounds.pack(x1, y1, x2, y2);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Find the combinations with the biggest area, sorted from the biggest
+     * to the smallest. Pairs of rows are visited from the tallest to the
+     * shortest, and for every pair of rows and color rectangles are only
+     * listed while they are bigger than the smallest one already kept.
+     *
+     * @param board  the board that has to be inspected.
+     * @param count  how many combinations are requested.
+     * @return  the packed bounds of at most count combinations. The array
+     *          is empty if count is not positive.
+     */
+    public static int[] bestCombinations(Board board, int count) {
+        if (count <= 0) {
+            return new int[0];
+        }
+        int size = board.getSize();
+        int colors = board.getColorCount();
+        int[] best = new int[count];
+        int[] areas = new int[count];
+        int found = 0;
+        for (int height = size; height >= 2; height--) {
+            // Smallest area that a new combination has to beat.
+            int threshold = found < count ? 0 : areas[count - 1];
+            if (height * size <= threshold) {
+                break;
+            }
+            for (int y1 = 0; y1 + height <= size; y1++) {
+                int y2 = y1 + height - 1;
+                for (int color = 0; color < colors; color++) {
+                    int right = board.previousCommonColumn(color, y1, y2, size - 1);
+                    int x1 = board.nextCommonColumn(color, y1, y2, 0);
+                    while (x1 >= 0 && height * (right - x1 + 1) > threshold) {
+                        int x2 = right;
+                        while (x2 > x1 && height * (x2 - x1 + 1) > threshold) {
+                            // Insert keeping the arrays sorted by area.
+                            int area = height * (x2 - x1 + 1);
+                            int position = Math.min(found, count - 1);
+                            while (position > 0 && areas[position - 1] < area) {
+                                areas[position] = areas[position - 1];
+                                best[position] = best[position - 1];
+                                position--;
+                            }
+                            areas[position] = area;
+                            best[position] = Bounds.pack(x1, y1, x2, y2);
+                            found = Math.min(found + 1, count);
+                            threshold = found < count ? 0 : areas[count - 1];
+                            x2 = board.previousCommonColumn(color, y1, y2, x2 - 1);
+                        }
+                        x1 = board.nextCommonColumn(color, y1, y2, x1 + 1);
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(best, found);
+    }
+
+    /** @return the biggest combination, or null if there are none. */
+    public Bounds bestCombination() {
+        int best = bestCombination(board);
+        return best == Bounds.NONE ? null : Bounds.unpack(best);
+    }
+
+    /**
+     * @param count  how many combinations are requested.
+     * @return  the biggest combinations, sorted from biggest to smallest.
+     */
+    public List<Bounds> bestCombinations(int count) {
+        int[] best = bestCombinations(board, count);
+        List<Bounds> list = new ArrayList<>(best.length);
+        for (int combination : best) {
+            list.add(Bounds.unpack(combination));
+        }
+        return list;
+    }
+
+    /**
+     * Get every combination of the board. The list is built again on every
+     * call, so prefer {@link #forEach(CombinationVisitor)} or a
+     * {@link CombinationCursor} if the combinations are not all needed.
+     * @return  the bounds of every combination.
+     */
+    public List<Bounds> getPossibleBounds() {
+        int[] packed = findAll(board);
+        List<Bounds> possibleBounds = new ArrayList<>(packed.length);
+        for (int combination : packed) {
+            possibleBounds.add(Bounds.unpack(combination));
+        }
+        return Collections.unmodifiableList(possibleBounds);
+    }
+
+    public Bounds getCombination() {
+        CombinationCursor cursor = new CombinationCursor(board);
+        return cursor.next() ? Bounds.unpack(cursor.getBounds()) : null;
+    }
+
+    public boolean areThereCombinations() {
+        return hasAnyCombination(board);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+/**
+ * Index of the combinations available on a board that is kept up to date
+ * while the board changes. The index stores how many combinations there
+ * are for every pair of rows. When some balls change, only the pairs of
+ * rows that contain a changed row are counted again, so after a region
+ * of the board is randomized the index costs work proportional to the
+ * rows of that region instead of to the whole board: every changed row
+ * costs O(n * c * w) word operations for a board of size n with c colors
+ * and w words per row. The index takes n * (n + 1) ints of memory.
+ *
+ * The index doesn't need to be notified. Every query checks the row
+ * modification counters of the board and updates the stale rows first.
+ */
+public class CombinationIndex {
+
+    private final Board board;
+
+    private final int size;
+
+    /** Combinations for every pair of rows y1 < y2, at y1 * size + y2. */
+    private final int[] pairCounts;
+
+    /** Combinations having every row as their bottom row. */
+    private final int[] rowCounts;
+
+    /** The last row modification counter seen for every row. */
+    private final int[] rowVersions;
+
+    /** Rows that have changed since the last update. */
+    private final boolean[] dirtyRows;
+
+    /** Sum of every value in pairCounts. */
+    private int total;
+
+    public CombinationIndex(Board board) {
+        this.board = board;
+        this.size = board.getSize();
+        this.pairCounts = new int[size * size];
+        this.rowCounts = new int[size];
+        this.rowVersions = new int[size];
+        this.dirtyRows = new boolean[size];
+        rebuild();
+    }
+
+    /** Count every pair of rows again. */
+    public void rebuild() {
+        total = 0;
+        for (int y1 = 0; y1 < size - 1; y1++) {
+            rowCounts[y1] = 0;
+            for (int y2 = y1 + 1; y2 < size; y2++) {
+                int count = countPair(y1, y2);
+                pairCounts[y1 * size + y2] = count;
+                rowCounts[y1] += count;
+            }
+            total += rowCounts[y1];
+        }
+        for (int y = 0; y < size; y++) {
+            rowVersions[y] = board.getRowVersion(y);
+        }
+    }
+
+    /**
+     * Count again the pairs of rows that contain a row that has changed
+     * since the last update. Queries call this method by themselves.
+     */
+    public void update() {
+        boolean changed = false;
+        for (int y = 0; y < size; y++) {
+            int version = board.getRowVersion(y);
+            dirtyRows[y] = version != rowVersions[y];
+            if (dirtyRows[y]) {
+                rowVersions[y] = version;
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return;
+        }
+
+        for (int y = 0; y < size; y++) {
+            if (!dirtyRows[y]) {
+                continue;
+            }
+            for (int other = 0; other < size; other++) {
+                // If both rows are dirty, count the pair only once.
+                if (other == y || (dirtyRows[other] && other < y)) {
+                    continue;
+                }
+                int bottom = Math.min(y, other), top = Math.max(y, other);
+                int index = bottom * size + top;
+                int count = countPair(bottom, top);
+                rowCounts[bottom] += count - pairCounts[index];
+                total += count - pairCounts[index];
+                pairCounts[index] = count;
+            }
+        }
+    }
+
+    /**
+     * Count how many combinations use these two rows. For every color, if
+     * both rows share that color on k columns, there are k * (k - 1) / 2
+     * rectangles.
+     */
+    private int countPair(int y1, int y2) {
+        int count = 0;
+        int words = board.getWordCount();
+        for (int color = 0; color < board.getColorCount(); color++) {
+            int common = 0;
+            for (int word = 0; word < words; word++) {
+                common += Long.bitCount(board.getRowMask(color, y1, word) & board.getRowMask(color, y2, word));
+            }
+            count += common * (common - 1) / 2;
+        }
+        return count;
+    }
+
+    /** @return how many combinations are there on the board. */
+    public int getCombinationCount() {
+        update();
+        return total;
+    }
+
+    /** @return whether there is at least one combination on the board. */
+    public boolean hasCombinations() {
+        return getCombinationCount() > 0;
+    }
+
+    /**
+     * Get a combination from the board. Pairs of rows without combinations
+     * are skipped using the index, so only one pair of rows is inspected.
+     * @return  the packed bounds of a combination, or Bounds.NONE.
+     */
+    public int getCombination() {
+        update();
+        if (total > 0) {
+            for (int y1 = 0; y1 < size - 1; y1++) {
+                if (rowCounts[y1] == 0) {
+                    continue;
+                }
+                for (int y2 = y1 + 1; y2 < size; y2++) {
+                    if (pairCounts[y1 * size + y2] > 0) {
+                        return firstInPair(y1, y2);
+                    }
+                }
+            }
+        }
+        return Bounds.NONE;
+    }
+
+    private int firstInPair(int y1, int y2) {
+        for (int color = 0; color < board.getColorCount(); color++) {
+            int x1 = board.nextCommonColumn(color, y1, y2, 0);
+            if (x1 >= 0) {
+                int x2 = board.nextCommonColumn(color, y1, y2, x1 + 1);
+                if (x2 >= 0) {
+                    return Bounds.pack(x1, y1, x2, y2);
+                }
+            }
+        }
+        return Bounds.NONE;
+    }
+
+    /**
+     * Walk every combination of the board, skipping the pairs of rows that
+     * have no combinations according to the index.
+     *
+     * @param visitor  the visitor that receives the combinations.
+     * @return  false if the visitor stopped the walk, true otherwise.
+     */
+    public boolean forEach(CombinationFinder.CombinationVisitor visitor) {
+        update();
+        for (int y1 = 0; y1 < size - 1; y1++) {
+            if (rowCounts[y1] == 0) {
+                continue;
+            }
+            for (int y2 = y1 + 1; y2 < size; y2++) {
+                if (pairCounts[y1 * size + y2] != 0
+                        && !CombinationFinder.forEachInRows(board, y1, y2, visitor)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
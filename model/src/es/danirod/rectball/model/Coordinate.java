@@ -0,0 +1,46 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+/**
+ * Position of a ball in a board. Coordinates can also be packed into a
+ * single int, using the upper 16 bits for x and the lower 16 bits for y,
+ * so that code in tight loops can pass them around without allocating.
+ */
+public class Coordinate {
+
+    public static int pack(int x, int y) {
+        return (x << 16) | y;
+    }
+
+    public static int unpackX(int packed) {
+        return packed >>> 16;
+    }
+
+    public static int unpackY(int packed) {
+        return packed & 0xFFFF;
+    }
+
+    public int x, y;
+
+    public Coordinate(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+/**
+ * The rules of the game: how long does a game last, how many points are
+ * given for a combination and how much time is given back. Both the game
+ * screen and the simulator use these rules, so they can't disagree.
+ */
+public final class GameRules {
+
+    /** How many seconds does the timer have when the game starts. */
+    public static final int SECONDS = 30;
+
+    /**
+     * How many seconds are added to the timer after every combination. The
+     * timer can never have more than {@link #SECONDS}.
+     */
+    public static final int BONUS_SECONDS = 4;
+
+    private GameRules() {
+
+    }
+
+    /**
+     * Get the points given for a combination.
+     * @param bounds  the packed bounds of the combination.
+     * @return  the points, which is the number of balls in the combination.
+     */
+    public static int getScore(int bounds) {
+        return (Bounds.maxX(bounds) - Bounds.minX(bounds) + 1)
+                * (Bounds.maxY(bounds) - Bounds.minY(bounds) + 1);
+    }
+
+    /**
+     * Get the remaining time after a combination is made.
+     * @param seconds  the remaining seconds before the combination.
+     * @return  the remaining seconds after the combination.
+     */
+    public static float addBonus(float seconds) {
+        return Math.min(seconds + BONUS_SECONDS, SECONDS);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+/**
+ * Information about a game. Usually the game we want information from is
+ * the game the player is currently playing. This data structure can contain
+ * information about score and time.
+ *
+ * @author danirod
+ */
+public class GameState {
+
+    /** The size of the board used by the game. */
+    public static final int DEFAULT_SIZE = 6;
+
+    /**
+     * The score. This data structure will provide methods to manually update
+     * the score or to add points to the value, which is what the user will
+     * usually do, actually.
+     */
+    private int score;
+
+    /**
+     * How many seconds has been the player playing. This is used to know how
+     * many seconds has the player lasted when the game is over. Every tick
+     * this value should be updated.
+     */
+    private float time;
+
+    private final Board board;
+
+    /**
+     * Combinations available on the board. The index is kept up to date
+     * while the board changes, so asking for combinations after a region
+     * is randomized doesn't scan the whole board again.
+     */
+    private final CombinationIndex combinations;
+
+    /** Random number generator used for this game. */
+    private final RandomSource random;
+
+    /** Constraints for the balls generated after a combination. */
+    private final GenerationConstraints constraints = new GenerationConstraints();
+
+    public GameState() {
+        this(new RandomSource());
+    }
+
+    /**
+     * Create a game whose boards are generated from the given seed. Games
+     * created with the same seed generate the same boards, which is useful
+     * for replays and benchmarks.
+     * @param seed  the seed for the random number generator.
+     */
+    public GameState(long seed) {
+        this(new RandomSource(seed));
+    }
+
+    public GameState(RandomSource random) {
+        this(DEFAULT_SIZE, random);
+    }
+
+    /**
+     * Create a game using a board of any size. The game screens use boards
+     * of {@link #DEFAULT_SIZE}, but headless code can use bigger boards, up
+     * to {@link Board#MAX_SIZE}. Boards must be at least 2x2, since smaller
+     * boards can't have any combination.
+     * @param size  the size of the board.
+     * @param random  the random number generator for this game.
+     */
+    public GameState(int size, RandomSource random) {
+        if (size < 2) {
+            throw new IllegalArgumentException("Game boards must be at least 2x2, got " + size);
+        }
+        this.score = 0;
+        this.time = 0;
+        this.random = random;
+        board = new Board(size, random);
+        combinations = new CombinationIndex(board);
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = Math.max(0, score);
+    }
+
+    public void addScore(int score) {
+        this.score += score;
+    }
+
+    public float getTime() {
+        return time;
+    }
+
+    public void setTime(float time) {
+        this.time = Math.max(0, time);
+    }
+
+    public void addTime(float time) {
+        this.time += time;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public RandomSource getRandom() {
+        return random;
+    }
+
+    public CombinationIndex getCombinations() {
+        return combinations;
+    }
+
+    /**
+     * Give the player the points for a combination.
+     * @param bounds  the packed bounds of the combination.
+     * @return  how many points have been given.
+     */
+    public int scoreCombination(int bounds) {
+        int points = GameRules.getScore(bounds);
+        score += points;
+        return points;
+    }
+
+    /**
+     * Generate new balls in the region of a combination. The new board will
+     * have a combination, and the region that has just been cleared can't be
+     * a combination again or the player would be doing the same move forever.
+     * If the generator can't do that, the whole board is reset. A few balls
+     * outside the region may also change, see {@link Board#getRepainted(int)}.
+     *
+     * @param bounds  the packed bounds of the combination.
+     * @return  true if only the region changed, false if the board was reset.
+     */
+    public boolean regenerate(int bounds) {
+        constraints.excluding(bounds);
+        if (board.randomize(bounds, constraints)) {
+            return true;
+        }
+        resetBoard();
+        return false;
+    }
+
+    public void reset() {
+        time = 0;
+        score = 0;
+        resetBoard();
+    }
+
+    /**
+     * Randomize the whole board. The generator always leaves at least one
+     * combination on boards of 2x2 or bigger, so this takes a bounded time.
+     */
+    public void resetBoard() {
+        board.randomize();
+        if (!CombinationFinder.hasAnyCombination(board)) {
+            throw new IllegalStateException("The generator left the board without combinations");
+        }
+    }
+}
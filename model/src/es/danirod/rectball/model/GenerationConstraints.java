@@ -0,0 +1,78 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+/**
+ * Conditions that a board has to meet after a region has been generated.
+ * By default the board only needs a single combination. Constraints can
+ * be chained, for instance:
+ *
+ * <pre>
+ * new GenerationConstraints().atLeast(3).excluding(clearedBounds);
+ * </pre>
+ */
+public class GenerationConstraints {
+
+    /** How many different combinations the board has to have. */
+    private int minCombinations = 1;
+
+    /** Packed bounds that can't be a combination, or Bounds.NONE. */
+    private int excluded = Bounds.NONE;
+
+    /**
+     * Ask for the board to have at least this number of combinations.
+     * @param combinations  the minimum number of combinations.
+     * @return  these constraints.
+     */
+    public GenerationConstraints atLeast(int combinations) {
+        this.minCombinations = Math.max(1, combinations);
+        return this;
+    }
+
+    /**
+     * Ask for the given bounds not to be a combination. This is used to
+     * avoid the region that has been cleared becoming the same combination
+     * again.
+     * @param bounds  the bounds that can't be a combination, or null.
+     * @return  these constraints.
+     */
+    public GenerationConstraints excluding(Bounds bounds) {
+        this.excluded = bounds == null ? Bounds.NONE : bounds.pack();
+        return this;
+    }
+
+    /**
+     * Ask for the given bounds not to be a combination.
+     * @param bounds  the packed bounds that can't be a combination, or
+     *                Bounds.NONE.
+     * @return  these constraints.
+     */
+    public GenerationConstraints excluding(int bounds) {
+        this.excluded = bounds;
+        return this;
+    }
+
+    public int getMinCombinations() {
+        return minCombinations;
+    }
+
+    /** @return the packed bounds that can't be a combination, or Bounds.NONE. */
+    public int getExcluded() {
+        return excluded;
+    }
+}
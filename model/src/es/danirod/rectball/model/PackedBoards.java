@@ -0,0 +1,286 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import java.util.Arrays;
+
+/**
+ * Compact storage for many boards of the same size. Instead of a ball
+ * object per cell, every board is stored as packed color indices in a
+ * single shared long array, using two bits per cell for the current four
+ * colors (a 6x6 board takes two longs). This makes it possible to keep
+ * millions of boards in memory for simulations or stored replays.
+ *
+ * Boards are copied in and out of the storage with {@link #add(Board)} and
+ * {@link #get(int, Board)}, but a stored board can also be read and written
+ * in place through a {@link View}, which never copies the board.
+ *
+ * Boards must be full before they are stored, because the packed format
+ * has no room for empty cells. This class is not thread safe.
+ */
+public class PackedBoards {
+
+    /** Default amount of boards to make room for. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int size;
+
+    /** How many longs does every board take. */
+    private final int wordsPerBoard;
+
+    private long[] data;
+
+    private int count = 0;
+
+    /**
+     * Create storage for boards of the given size.
+     * @param size  the size of the boards.
+     */
+    public PackedBoards(int size) {
+        this(size, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create storage for boards of the given size.
+     * @param size  the size of the boards.
+     * @param capacity  how many boards to make room for. The storage grows
+     *                  if more boards are added, but if the amount of boards
+     *                  is known in advance, this avoids copying the data.
+     */
+    public PackedBoards(int size, int capacity) {
+        if (size < 1 || size > Board.MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid board size: " + size);
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.size = size;
+        this.wordsPerBoard = ColorPacking.wordsFor(size * size);
+        this.data = new long[checkLength((long) capacity * wordsPerBoard)];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /** @return how many boards are stored. */
+    public int getCount() {
+        return count;
+    }
+
+    /** @return how many boards can be stored before growing the storage. */
+    public int getCapacity() {
+        return data.length / wordsPerBoard;
+    }
+
+    /** @return how many bits are used to store a single ball. */
+    public int getBitsPerCell() {
+        return ColorPacking.BITS_PER_CELL;
+    }
+
+    /** @return how many bytes does every stored board take. */
+    public int getBytesPerBoard() {
+        return wordsPerBoard * 8;
+    }
+
+    /**
+     * Store a copy of a board at the end of the storage.
+     * @param board  the board to store.
+     * @return  the index of the stored board.
+     */
+    public int add(Board board) {
+        checkBoard(board);
+        ensureCapacity(count + 1);
+        write(count * wordsPerBoard, board);
+        return count++;
+    }
+
+    /**
+     * Replace a stored board with a copy of another board.
+     * @param index  the index of the stored board.
+     * @param board  the board to store.
+     */
+    public void set(int index, Board board) {
+        checkIndex(index);
+        checkBoard(board);
+        write(index * wordsPerBoard, board);
+    }
+
+    private void write(int offset, Board board) {
+        // Check first, so that a stored board is never left half written.
+        if (!board.isFull()) {
+            throw new IllegalArgumentException("Cannot store a board with empty cells");
+        }
+        Arrays.fill(data, offset, offset + wordsPerBoard, 0);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                ColorPacking.set(data, offset, y * size + x, board.getColorIndex(x, y));
+            }
+        }
+    }
+
+    /**
+     * Copy a stored board into a board.
+     * @param index  the index of the stored board.
+     * @param board  the board that will receive the colors.
+     */
+    public void get(int index, Board board) {
+        checkIndex(index);
+        checkBoard(board);
+        int offset = index * wordsPerBoard;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                board.setColorIndex(x, y, ColorPacking.get(data, offset, y * size + x));
+            }
+        }
+    }
+
+    public int getColorIndex(int index, int x, int y) {
+        checkIndex(index);
+        checkCell(x, y);
+        return ColorPacking.get(data, index * wordsPerBoard, y * size + x);
+    }
+
+    public BallColor getColor(int index, int x, int y) {
+        return ColorPacking.toColor(getColorIndex(index, x, y));
+    }
+
+    public void setColorIndex(int index, int x, int y, int color) {
+        checkIndex(index);
+        checkCell(x, y);
+        ColorPacking.checkColor(color);
+        ColorPacking.set(data, index * wordsPerBoard, y * size + x, color);
+    }
+
+    /**
+     * Get a view of a stored board. The view reads and writes the storage
+     * directly, so it is never copied. Views are reusable: use
+     * {@link View#moveTo(int)} to look at a different board instead of
+     * creating a new view for every board.
+     *
+     * @param index  the index of the stored board.
+     * @return  a view of that board.
+     */
+    public View view(int index) {
+        checkIndex(index);
+        return new View(index);
+    }
+
+    /** Remove every board. The memory is kept to be reused. */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Make sure there is room for some boards without growing again.
+     * @param capacity  how many boards should fit.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > getCapacity()) {
+            // Grow by half the capacity, unless that goes over the limit.
+            long needed = (long) capacity * wordsPerBoard;
+            long grown = (long) (getCapacity() + (getCapacity() >> 1) + 1) * wordsPerBoard;
+            long length = Math.max(needed, Math.min(grown, Integer.MAX_VALUE - 8));
+            data = Arrays.copyOf(data, checkLength(length));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Board " + index + " of " + count);
+        }
+    }
+
+    private void checkCell(int x, int y) {
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            throw new IndexOutOfBoundsException("Cell " + x + ", " + y);
+        }
+    }
+
+    private void checkBoard(Board board) {
+        if (board.getSize() != size) {
+            throw new IllegalArgumentException("Board size should be " + size);
+        }
+    }
+
+    private static int checkLength(long length) {
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many boards");
+        }
+        return (int) length;
+    }
+
+    /**
+     * Window over a single stored board. It doesn't hold a copy of the
+     * board, so changes made through the view are stored straight away
+     * and changes made to the storage are seen by the view.
+     */
+    public class View {
+
+        private int index;
+
+        private int offset;
+
+        private View(int index) {
+            moveTo(index);
+        }
+
+        /**
+         * Point this view to a different stored board.
+         * @param index  the index of the stored board.
+         * @return  this view.
+         */
+        public View moveTo(int index) {
+            checkIndex(index);
+            this.index = index;
+            this.offset = index * wordsPerBoard;
+            return this;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getColorIndex(int x, int y) {
+            checkCell(x, y);
+            return ColorPacking.get(data, offset, y * size + x);
+        }
+
+        public BallColor getColor(int x, int y) {
+            return ColorPacking.toColor(getColorIndex(x, y));
+        }
+
+        public void setColorIndex(int x, int y, int color) {
+            checkCell(x, y);
+            ColorPacking.checkColor(color);
+            ColorPacking.set(data, offset, y * size + x, color);
+        }
+
+        /**
+         * Copy the board into a board.
+         * @param board  the board that will receive the colors.
+         */
+        public void copyTo(Board board) {
+            get(index, board);
+        }
+    }
+}
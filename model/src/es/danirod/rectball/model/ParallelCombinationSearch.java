@@ -0,0 +1,88 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds every combination of a big board using a fork/join pool. Every
+ * combination belongs to exactly one pair of rows, so the board is split
+ * into bands of bottom rows that are searched in parallel. Bands never
+ * share combinations, so merging the results is just concatenating them,
+ * and the result has the same order as the sequential search.
+ *
+ * The board must not be modified while it's being searched.
+ */
+class ParallelCombinationSearch extends RecursiveTask<int[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** How many bottom rows are searched by a single task. */
+    private static final int BAND_ROWS = 4;
+
+    /** Pool shared by every search, created the first time it's needed. */
+    private static class PoolHolder {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    private final Board board;
+
+    /** Bottom rows in [fromRow, toRow) are searched by this task. */
+    private final int fromRow, toRow;
+
+    private ParallelCombinationSearch(Board board, int fromRow, int toRow) {
+        this.board = board;
+        this.fromRow = fromRow;
+        this.toRow = toRow;
+    }
+
+    /**
+     * Find every combination of the board using the shared pool.
+     * @param board  the board to search.
+     * @return  the packed bounds of every combination.
+     */
+    static int[] search(Board board) {
+        return PoolHolder.POOL.invoke(new ParallelCombinationSearch(board, 0, board.getSize() - 1));
+    }
+
+    @Override
+    protected int[] compute() {
+        if (toRow - fromRow <= BAND_ROWS) {
+            return searchBand();
+        }
+
+        int middle = (fromRow + toRow) >>> 1;
+        ParallelCombinationSearch bottom = new ParallelCombinationSearch(board, fromRow, middle);
+        ParallelCombinationSearch top = new ParallelCombinationSearch(board, middle, toRow);
+        bottom.fork();
+        int[] topBounds = top.compute();
+        int[] bottomBounds = bottom.join();
+
+        int[] merged = Arrays.copyOf(bottomBounds, bottomBounds.length + topBounds.length);
+        System.arraycopy(topBounds, 0, merged, bottomBounds.length, topBounds.length);
+        return merged;
+    }
+
+    private int[] searchBand() {
+        CombinationFinder.Collector collector = new CombinationFinder.Collector();
+        CombinationFinder.forEach(board, fromRow, toRow, collector);
+        return collector.toArray();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Random number generator used by boards. It implements SplitMix64, which
+ * is small and fast and, unlike a shared global generator, can be given a
+ * seed to replay exactly the same boards again and can be split to give
+ * independent generators to different games or threads.
+ *
+ * Instances are not thread safe. Every thread should use its own instance,
+ * for instance one obtained through {@link #split()}.
+ */
+public class RandomSource {
+
+    /** The increment of SplitMix64, derived from the golden ratio. */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Used to give different seeds to generators created without seed. */
+    private static final AtomicLong seedUniquifier = new AtomicLong(System.nanoTime());
+
+    private long state;
+
+    /** Create a generator with an unpredictable seed. */
+    public RandomSource() {
+        this(mix(seedUniquifier.addAndGet(GOLDEN_GAMMA) ^ System.nanoTime()));
+    }
+
+    /**
+     * Create a generator with the given seed. Two generators with the same
+     * seed will always return the same sequence of numbers.
+     * @param seed  the seed for this generator.
+     */
+    public RandomSource(long seed) {
+        this.state = seed;
+    }
+
+    /** @return a random long. */
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Get a random integer between 0 (inclusive) and bound (exclusive).
+     * @param bound  the upper bound, it has to be positive.
+     * @return  a random integer in [0, bound).
+     */
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Create a new generator whose sequence is independent from this one.
+     * Splitting a seeded generator gives seeded generators, so a whole
+     * simulation can be replayed from a single seed.
+     * @return  a new generator.
+     */
+    public RandomSource split() {
+        return new RandomSource(mix(nextLong()));
+    }
+
+    /** The SplitMix64 finalizer, which scrambles the bits of a long. */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
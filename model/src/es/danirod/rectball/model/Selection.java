@@ -0,0 +1,108 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import java.util.List;
+
+class Selection {
+
+    private Board board;
+
+    private List<Ball> balls;
+
+    public Selection(Board board, List<Ball> balls) {
+        this.board = board;
+        this.balls = balls;
+    }
+
+    /**
+     * Returns true if all the balls in the selection share the same color.
+     * @return true unless there is a single ball having a different color.
+     */
+    public boolean checkSameColor() {
+        Ball first = balls.get(0);
+        int reference = board.getColorIndex(first.getX(), first.getY());
+        for (Ball ball : balls) {
+            if (reference != board.getColorIndex(ball.getX(), ball.getY())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check that the selection forms a square.
+     * @return  true if the selection forms a square.
+     */
+    public boolean checkSquare() {
+        return balls.size() == 4 && isRectangle(
+                Coordinate.pack(balls.get(0).getX(), balls.get(0).getY()),
+                Coordinate.pack(balls.get(1).getX(), balls.get(1).getY()),
+                Coordinate.pack(balls.get(2).getX(), balls.get(2).getY()),
+                Coordinate.pack(balls.get(3).getX(), balls.get(3).getY()));
+    }
+
+    /**
+     * Check whether four balls are a valid selection: they have the same
+     * color and they are the four corners of a rectangle. This method only
+     * uses integer comparisons, so it doesn't allocate anything.
+     *
+     * @param board  the board the balls belong to.
+     * @param a  packed coordinate of the first ball.
+     * @param b  packed coordinate of the second ball.
+     * @param c  packed coordinate of the third ball.
+     * @param d  packed coordinate of the fourth ball.
+     * @return  true if the selection is valid.
+     */
+    static boolean isValid(Board board, int a, int b, int c, int d) {
+        int color = colorAt(board, a);
+        return color >= 0 && colorAt(board, b) == color && colorAt(board, c) == color
+                && colorAt(board, d) == color && isRectangle(a, b, c, d);
+    }
+
+    private static int colorAt(Board board, int packed) {
+        return board.getColorIndex(Coordinate.unpackX(packed), Coordinate.unpackY(packed));
+    }
+
+    /**
+     * Check that four coordinates are the four different corners of a
+     * rectangle. To be a valid rectangle there should be two rows (upper
+     * row and bottom row) and two columns (left and right col), and every
+     * corner has to be used once.
+     */
+    private static boolean isRectangle(int a, int b, int c, int d) {
+        int bounds = Bounds.fromCoordinates(a, b, c, d);
+        int minX = Bounds.minX(bounds), minY = Bounds.minY(bounds);
+        int maxX = Bounds.maxX(bounds), maxY = Bounds.maxY(bounds);
+        if (minX == maxX || minY == maxY) {
+            return false;
+        }
+        int corners = corner(a, minX, minY, maxX, maxY) | corner(b, minX, minY, maxX, maxY)
+                | corner(c, minX, minY, maxX, maxY) | corner(d, minX, minY, maxX, maxY);
+        return corners == 0xF;
+    }
+
+    /** @return a bit identifying the corner, or 0 if it's not a corner. */
+    private static int corner(int packed, int minX, int minY, int maxX, int maxY) {
+        int x = Coordinate.unpackX(packed), y = Coordinate.unpackY(packed);
+        if ((x != minX && x != maxX) || (y != minY && y != maxY)) {
+            return 0;
+        }
+        return 1 << ((x == maxX ? 1 : 0) | (y == maxY ? 2 : 0));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.simulation;
+
+import es.danirod.rectball.model.GameState;
+
+/**
+ * How a simulated player plays. Every turn the simulator asks the policy
+ * which combination to select and how long does it take to select it.
+ * Policies may keep state between turns, so every simulator must have its
+ * own instance.
+ */
+public interface MovePolicy {
+
+    /**
+     * Creates policies. Simulations running on many threads use a factory
+     * to give every thread its own policy.
+     */
+    interface Factory {
+
+        MovePolicy create();
+
+    }
+
+    /**
+     * Choose the next combination.
+     * @param state  the game being played.
+     * @return  the packed bounds of a valid combination, or Bounds.NONE to
+     *          stop playing and wait for the time to run out.
+     */
+    int chooseMove(GameState state);
+
+    /**
+     * How long does the player take to find and select a combination.
+     * @param state  the game being played.
+     * @param move  the packed bounds of the chosen combination.
+     * @return  the time taken, in seconds.
+     */
+    float getMoveTime(GameState state, int move);
+}
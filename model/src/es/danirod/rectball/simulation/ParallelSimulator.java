@@ -0,0 +1,169 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.simulation;
+
+import es.danirod.rectball.model.GameState;
+import es.danirod.rectball.model.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays batches of games using every core. Every worker thread has its own
+ * game, random number generator and policy, so workers never share any
+ * state while they play. Every worker counts into its own histogram and
+ * publishes it once, when its games are finished, so threads don't wait on
+ * each other and the throughput grows with the number of cores.
+ *
+ * Games are split evenly between the workers, and the generator of every
+ * worker is split from the given generator, so a run with the same seed
+ * and the same number of threads always gives the same result.
+ */
+public class ParallelSimulator {
+
+    private final int threads;
+
+    private final int size;
+
+    private final MovePolicy.Factory policies;
+
+    private final RandomSource random;
+
+    private int moveLimit = Simulator.DEFAULT_MOVE_LIMIT;
+
+    /**
+     * Create a simulator using every core and the default board size.
+     * @param policies  creates a policy for every worker.
+     * @param random  the generator the workers' generators are split from.
+     */
+    public ParallelSimulator(MovePolicy.Factory policies, RandomSource random) {
+        this(Runtime.getRuntime().availableProcessors(), GameState.DEFAULT_SIZE, policies, random);
+    }
+
+    /**
+     * Create a simulator.
+     * @param threads  how many worker threads to use.
+     * @param size  the size of the boards.
+     * @param policies  creates a policy for every worker.
+     * @param random  the generator the workers' generators are split from.
+     */
+    public ParallelSimulator(int threads, int size, MovePolicy.Factory policies, RandomSource random) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + threads);
+        }
+        this.threads = threads;
+        this.size = size;
+        this.policies = policies;
+        this.random = random;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /** @see Simulator#setMoveLimit(int) */
+    public void setMoveLimit(int moveLimit) {
+        if (moveLimit < 1) {
+            throw new IllegalArgumentException("Invalid move limit: " + moveLimit);
+        }
+        this.moveLimit = moveLimit;
+    }
+
+    /**
+     * Play many games.
+     * @param games  how many games to play.
+     * @param bucketWidth  bucket width for the score histogram.
+     * @return  what happened during those games.
+     */
+    public SimulationResult run(long games, int bucketWidth) {
+        final ScoreHistogram scores = new ScoreHistogram(bucketWidth);
+        final AtomicLong moves = new AtomicLong();
+        final AtomicLong limited = new AtomicLong();
+
+        // Prepare every worker before starting the clock.
+        List<Callable<Void>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            final long share = games / threads + (i < games % threads ? 1 : 0);
+            final Simulator simulator = new Simulator(new GameState(size, random.split()), policies.create());
+            simulator.setMoveLimit(moveLimit);
+            final ScoreHistogram local = new ScoreHistogram(bucketWidth);
+            workers.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    long localMoves = 0, localLimited = 0;
+                    for (long game = 0; game < share; game++) {
+                        local.add(simulator.play());
+                        localMoves += simulator.getMoves();
+                        if (simulator.isLimited()) {
+                            localLimited++;
+                        }
+                    }
+                    moves.addAndGet(localMoves);
+                    limited.addAndGet(localLimited);
+                    synchronized (scores) {
+                        scores.merge(local);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            for (Future<Void> result : executor.invokeAll(workers)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new SimulationResult(scores, moves.get(), limited.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Run a batch of games on every core and print the report. Arguments,
+     * all optional: games, policy (first, biggest or random), seconds per
+     * move, seed, move limit, threads.
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+        String policy = args.length > 1 ? args[1] : "random";
+        float seconds = args.length > 2 ? Float.parseFloat(args[2]) : 5f;
+        RandomSource random = args.length > 3 ? new RandomSource(Long.parseLong(args[3])) : new RandomSource();
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        ParallelSimulator simulator = new ParallelSimulator(threads, GameState.DEFAULT_SIZE,
+                Policies.factory(policy, seconds), random);
+        if (args.length > 4) {
+            simulator.setMoveLimit(Integer.parseInt(args[4]));
+        }
+        System.out.println("Policy " + policy + ", " + seconds + " s per move, " + threads + " threads");
+        System.out.print(simulator.run(games, 10));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.simulation;
+
+import es.danirod.rectball.model.Bounds;
+import es.danirod.rectball.model.CombinationFinder;
+import es.danirod.rectball.model.GameState;
+import es.danirod.rectball.model.GameRules;
+
+/**
+ * Built in move policies. Every policy takes the same fixed time for every
+ * move, which stands for how fast the simulated player is.
+ */
+public final class Policies {
+
+    private Policies() {
+
+    }
+
+    /**
+     * Always play the first combination found on the board.
+     * @param seconds  how long does every move take.
+     * @return  the policy.
+     */
+    public static MovePolicy first(float seconds) {
+        return new FixedTimePolicy(seconds) {
+            @Override
+            public int chooseMove(GameState state) {
+                return state.getCombinations().getCombination();
+            }
+        };
+    }
+
+    /**
+     * Always play the biggest combination on the board.
+     * @param seconds  how long does every move take.
+     * @return  the policy.
+     */
+    public static MovePolicy biggest(float seconds) {
+        return new FixedTimePolicy(seconds) {
+            @Override
+            public int chooseMove(GameState state) {
+                return CombinationFinder.bestCombination(state.getBoard());
+            }
+        };
+    }
+
+    /**
+     * Play any combination on the board, all of them with the same chance.
+     * The choice uses the random number generator of the game, so the games
+     * are still reproducible from their seed.
+     * @param seconds  how long does every move take.
+     * @return  the policy.
+     */
+    public static MovePolicy random(float seconds) {
+        return new RandomPolicy(seconds);
+    }
+
+    /**
+     * Get a policy by its name, as given in the command line.
+     * @param name  first, biggest or random.
+     * @param seconds  how long does every move take.
+     * @return  the policy.
+     */
+    public static MovePolicy forName(String name, float seconds) {
+        switch (name) {
+            case "first":
+                return first(seconds);
+            case "biggest":
+                return biggest(seconds);
+            case "random":
+                return random(seconds);
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + name);
+        }
+    }
+
+    /**
+     * Get a factory that creates policies by their name.
+     * @param name  first, biggest or random.
+     * @param seconds  how long does every move take.
+     * @return  the factory.
+     * @see #forName(String, float)
+     */
+    public static MovePolicy.Factory factory(final String name, final float seconds) {
+        // Fail now rather than when the first worker asks for a policy.
+        forName(name, seconds);
+        return new MovePolicy.Factory() {
+            @Override
+            public MovePolicy create() {
+                return forName(name, seconds);
+            }
+        };
+    }
+
+    private abstract static class FixedTimePolicy implements MovePolicy {
+
+        private final float seconds;
+
+        FixedTimePolicy(float seconds) {
+            if (seconds <= 0 || seconds > GameRules.SECONDS) {
+                throw new IllegalArgumentException("Invalid move time: " + seconds);
+            }
+            this.seconds = seconds;
+        }
+
+        @Override
+        public float getMoveTime(GameState state, int move) {
+            return seconds;
+        }
+    }
+
+    /** Reservoir sampling over the combinations of the board. */
+    private static class RandomPolicy extends FixedTimePolicy
+            implements CombinationFinder.CombinationVisitor {
+
+        private GameState state;
+
+        private int seen;
+
+        private int chosen;
+
+        RandomPolicy(float seconds) {
+            super(seconds);
+        }
+
+        @Override
+        public int chooseMove(GameState state) {
+            this.state = state;
+            seen = 0;
+            chosen = Bounds.NONE;
+            state.getCombinations().forEach(this);
+            return chosen;
+        }
+
+        @Override
+        public boolean visit(int bounds) {
+            seen++;
+            if (state.getRandom().nextInt(seen) == 0) {
+                chosen = bounds;
+            }
+            return true;
+        }
+    }
+}
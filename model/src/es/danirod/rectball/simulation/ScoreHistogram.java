@@ -0,0 +1,145 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Distribution of the scores of many games. Scores are grouped in buckets
+ * of a fixed width, so the histogram stays small no matter how many games
+ * are added. Histograms can be merged, so every thread can fill its own
+ * histogram and merge them when it finishes. This class is not thread safe.
+ */
+public class ScoreHistogram {
+
+    private final int bucketWidth;
+
+    private long[] counts = new long[16];
+
+    private long games = 0;
+
+    private long total = 0;
+
+    private int min = Integer.MAX_VALUE;
+
+    private int max = Integer.MIN_VALUE;
+
+    /**
+     * Create an empty histogram.
+     * @param bucketWidth  how many different scores are grouped in a bucket.
+     */
+    public ScoreHistogram(int bucketWidth) {
+        if (bucketWidth < 1) {
+            throw new IllegalArgumentException("Invalid bucket width: " + bucketWidth);
+        }
+        this.bucketWidth = bucketWidth;
+    }
+
+    public void add(int score) {
+        addCount(score / bucketWidth, 1);
+        games++;
+        total += score;
+        min = Math.min(min, score);
+        max = Math.max(max, score);
+    }
+
+    /**
+     * Add every game from another histogram into this histogram.
+     * @param other  a histogram using the same bucket width.
+     */
+    public void merge(ScoreHistogram other) {
+        if (other.bucketWidth != bucketWidth) {
+            throw new IllegalArgumentException("Bucket widths don't match");
+        }
+        for (int bucket = 0; bucket < other.counts.length; bucket++) {
+            if (other.counts[bucket] > 0) {
+                addCount(bucket, other.counts[bucket]);
+            }
+        }
+        games += other.games;
+        total += other.total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    private void addCount(int bucket, long count) {
+        if (bucket >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(bucket + 1, counts.length * 2));
+        }
+        counts[bucket] += count;
+    }
+
+    public int getBucketWidth() {
+        return bucketWidth;
+    }
+
+    /** @return how many buckets are there, including empty ones. */
+    public int getBucketCount() {
+        return games == 0 ? 0 : max / bucketWidth + 1;
+    }
+
+    /**
+     * Get how many games are in a bucket.
+     * @param bucket  the bucket, which holds the scores starting at
+     *                bucket * bucketWidth.
+     * @return  how many games had a score in that bucket.
+     */
+    public long getCount(int bucket) {
+        return bucket < counts.length ? counts[bucket] : 0;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public double getMean() {
+        return games == 0 ? 0 : (double) total / games;
+    }
+
+    /** @return the lowest score, or 0 if there are no games. */
+    public int getMin() {
+        return games == 0 ? 0 : min;
+    }
+
+    /** @return the highest score, or 0 if there are no games. */
+    public int getMax() {
+        return games == 0 ? 0 : max;
+    }
+
+    /**
+     * Get the lowest score that is better than or equal to a fraction of
+     * the games. The score is approximated to the start of its bucket.
+     * @param fraction  between 0 and 1, for instance 0.5 for the median.
+     * @return  the score.
+     */
+    public int getPercentile(double fraction) {
+        long target = (long) Math.ceil(fraction * games);
+        long seen = 0;
+        for (int bucket = 0; bucket < getBucketCount(); bucket++) {
+            seen += counts[bucket];
+            if (seen >= target && seen > 0) {
+                return bucket * bucketWidth;
+            }
+        }
+        return getMax();
+    }
+}
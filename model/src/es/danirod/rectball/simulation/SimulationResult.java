@@ -0,0 +1,102 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.simulation;
+
+import java.util.Locale;
+
+/**
+ * What happened during a batch of simulated games.
+ */
+public class SimulationResult {
+
+    /** Width of the longest bar when the histogram is printed. */
+    private static final int BAR_WIDTH = 50;
+
+    private final ScoreHistogram scores;
+
+    private final long moves;
+
+    private final long limitedGames;
+
+    private final long elapsedNanos;
+
+    public SimulationResult(ScoreHistogram scores, long moves, long limitedGames, long elapsedNanos) {
+        this.scores = scores;
+        this.moves = moves;
+        this.limitedGames = limitedGames;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public ScoreHistogram getScores() {
+        return scores;
+    }
+
+    public long getGames() {
+        return scores.getGames();
+    }
+
+    /** @return how many combinations were made in every game. */
+    public long getMoves() {
+        return moves;
+    }
+
+    /** @return how many games were stopped by the move limit. */
+    public long getLimitedGames() {
+        return limitedGames;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : scores.getGames() * 1e9 / elapsedNanos;
+    }
+
+    /** @return a human readable report, including the histogram. */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT,
+                "%d games in %.2f s (%.0f games/s), %.2f moves per game, %d hit the move limit%n",
+                getGames(), elapsedNanos / 1e9, getGamesPerSecond(),
+                getGames() == 0 ? 0 : (double) moves / getGames(), limitedGames));
+        report.append(String.format(Locale.ROOT,
+                "score: mean %.2f, min %d, p50 %d, p90 %d, p99 %d, max %d%n",
+                scores.getMean(), scores.getMin(), scores.getPercentile(0.5),
+                scores.getPercentile(0.9), scores.getPercentile(0.99), scores.getMax()));
+
+        // Only print the buckets between the lowest and the highest score.
+        int first = scores.getMin() / scores.getBucketWidth();
+        long highest = 0;
+        for (int bucket = first; bucket < scores.getBucketCount(); bucket++) {
+            highest = Math.max(highest, scores.getCount(bucket));
+        }
+        for (int bucket = first; bucket < scores.getBucketCount(); bucket++) {
+            long count = scores.getCount(bucket);
+            int start = bucket * scores.getBucketWidth();
+            report.append(String.format(Locale.ROOT, "%6d-%-6d %10d ",
+                    start, start + scores.getBucketWidth() - 1, count));
+            for (long i = count * BAR_WIDTH / highest; i > 0; i--) {
+                report.append('#');
+            }
+            report.append(String.format("%n"));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.simulation;
+
+import es.danirod.rectball.model.Board;
+import es.danirod.rectball.model.Bounds;
+import es.danirod.rectball.model.Coordinate;
+import es.danirod.rectball.model.GameRules;
+import es.danirod.rectball.model.GameState;
+import es.danirod.rectball.model.RandomSource;
+
+/**
+ * Plays complete games without rendering anything. The games follow the
+ * same rules as the game screen: the timer starts with
+ * {@link GameRules#SECONDS}, every combination gives its area as points and
+ * {@link GameRules#BONUS_SECONDS} back, and the region of the combination
+ * is regenerated through {@link GameState#regenerate(int)}. The only thing
+ * that is not simulated are the animations, which don't stop the timer.
+ *
+ * A player that is faster than {@link GameRules#BONUS_SECONDS} per move
+ * never runs out of time, so games are stopped after a move limit.
+ *
+ * A simulator reuses the same game for every game it plays, so it is not
+ * thread safe. Use a simulator per thread.
+ */
+public class Simulator {
+
+    /** Default value for the maximum number of moves in a game. */
+    public static final int DEFAULT_MOVE_LIMIT = 10000;
+
+    private final GameState state;
+
+    private final MovePolicy policy;
+
+    /** Games are stopped after this number of combinations. */
+    private int moveLimit = DEFAULT_MOVE_LIMIT;
+
+    /** How many combinations were made in the last game. */
+    private int moves;
+
+    public Simulator(GameState state, MovePolicy policy) {
+        this.state = state;
+        this.policy = policy;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public int getMoveLimit() {
+        return moveLimit;
+    }
+
+    /**
+     * Set the maximum number of combinations in a game. When a game
+     * reaches this limit, it ends as if the time had run out.
+     * @param moveLimit  the maximum number of combinations.
+     */
+    public void setMoveLimit(int moveLimit) {
+        if (moveLimit < 1) {
+            throw new IllegalArgumentException("Invalid move limit: " + moveLimit);
+        }
+        this.moveLimit = moveLimit;
+    }
+
+    /** @return true if the last game was stopped by the move limit. */
+    public boolean isLimited() {
+        return moves >= moveLimit;
+    }
+
+    /** @return how many combinations were made in the last game. */
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     * Play a complete game.
+     * @return  the final score.
+     */
+    public int play() {
+        state.reset();
+        moves = 0;
+        float remaining = GameRules.SECONDS;
+        while (moves < moveLimit) {
+            int move = policy.chooseMove(state);
+            float spent = move == Bounds.NONE ? remaining : policy.getMoveTime(state, move);
+            if (move == Bounds.NONE || spent > remaining) {
+                // The timer runs out before the player can do anything.
+                state.addTime(remaining);
+                return state.getScore();
+            }
+            if (!isCombination(state.getBoard(), move)) {
+                throw new IllegalStateException("The policy chose an invalid move");
+            }
+
+            remaining -= spent;
+            state.addTime(spent);
+            state.scoreCombination(move);
+            remaining = GameRules.addBonus(remaining);
+            state.regenerate(move);
+            moves++;
+        }
+        return state.getScore();
+    }
+
+    /**
+     * Play many games.
+     * @param games  how many games to play.
+     * @param bucketWidth  bucket width for the score histogram.
+     * @return  what happened during those games.
+     */
+    public SimulationResult run(int games, int bucketWidth) {
+        ScoreHistogram scores = new ScoreHistogram(bucketWidth);
+        long totalMoves = 0, limited = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            scores.add(play());
+            totalMoves += moves;
+            if (isLimited()) {
+                limited++;
+            }
+        }
+        return new SimulationResult(scores, totalMoves, limited, System.nanoTime() - start);
+    }
+
+    private static boolean isCombination(Board board, int bounds) {
+        int minX = Bounds.minX(bounds), minY = Bounds.minY(bounds);
+        int maxX = Bounds.maxX(bounds), maxY = Bounds.maxY(bounds);
+        return maxX < board.getSize() && maxY < board.getSize() && board.selection(
+                Coordinate.pack(minX, minY), Coordinate.pack(maxX, minY),
+                Coordinate.pack(minX, maxY), Coordinate.pack(maxX, maxY));
+    }
+
+    /**
+     * Run a batch of games from the command line and print the report.
+     * Arguments, all optional: games, policy (first, biggest or random),
+     * seconds per move, seed, move limit.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        String policy = args.length > 1 ? args[1] : "random";
+        float seconds = args.length > 2 ? Float.parseFloat(args[2]) : 5f;
+        RandomSource random = args.length > 3 ? new RandomSource(Long.parseLong(args[3])) : new RandomSource();
+
+        Simulator simulator = new Simulator(new GameState(random), Policies.forName(policy, seconds));
+        if (args.length > 4) {
+            simulator.setMoveLimit(Integer.parseInt(args[4]));
+        }
+        System.out.println("Policy " + policy + ", " + seconds + " s per move");
+        System.out.print(simulator.run(games, 10));
+    }
+}
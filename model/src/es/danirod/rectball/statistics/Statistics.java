@@ -0,0 +1,29 @@
+package es.danirod.rectball.statistics;
+
+/**
+ * Statistics about every game played. Loading and saving them is done by
+ * StatisticsIO in the core module, so this class is plain data.
+ */
+public class Statistics {
+
+    private StatisticSet total, colors, sizes;
+
+    public Statistics() {
+        total = new StatisticSet();
+        colors = new StatisticSet();
+        sizes = new StatisticSet();
+    }
+
+    public StatisticSet getTotalData() {
+        return total;
+    }
+
+    public StatisticSet getColorData() {
+        return colors;
+    }
+
+    public StatisticSet getSizesData() {
+        return sizes;
+    }
+
+}
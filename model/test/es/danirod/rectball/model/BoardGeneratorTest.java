@@ -0,0 +1,116 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BoardGeneratorTest {
+
+    /**
+     * Before the generator could repaint balls outside the region, about
+     * one in four thousand moves regenerated a 2x2 region that couldn't
+     * hold a combination and left the board without any.
+     */
+    @Test
+    public void regenerateNeverFailsDuringPlay() {
+        GameState state = new GameState(GameState.DEFAULT_SIZE, new RandomSource(42));
+        state.reset();
+        RandomSource moves = new RandomSource(7);
+        for (int move = 0; move < 200000; move++) {
+            int[] combinations = CombinationFinder.findAll(state.getBoard());
+            int bounds = combinations[moves.nextInt(combinations.length)];
+            assertTrue("move " + move + " reset the board", state.regenerate(bounds));
+            assertTrue(CombinationFinder.hasAnyCombination(state.getBoard()));
+        }
+    }
+
+    @Test
+    public void regeneratedRegionIsNotTheSameCombination() {
+        GameState state = new GameState(GameState.DEFAULT_SIZE, new RandomSource(1));
+        state.reset();
+        RandomSource moves = new RandomSource(2);
+        for (int move = 0; move < 20000; move++) {
+            int[] combinations = CombinationFinder.findAll(state.getBoard());
+            int bounds = combinations[moves.nextInt(combinations.length)];
+            assertTrue(state.regenerate(bounds));
+            for (int combination : CombinationFinder.findAll(state.getBoard())) {
+                assertTrue(combination != bounds);
+            }
+        }
+    }
+
+    @Test
+    public void repaintedBallsAreTheOnlyChangesOutsideTheRegion() {
+        GameState state = new GameState(GameState.DEFAULT_SIZE, new RandomSource(3));
+        state.reset();
+        Board board = state.getBoard();
+        int size = board.getSize();
+        int[][] before = new int[size][size];
+        RandomSource moves = new RandomSource(4);
+        int repainted = 0;
+        for (int move = 0; move < 100000; move++) {
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    before[x][y] = board.getColorIndex(x, y);
+                }
+            }
+            int[] combinations = CombinationFinder.findAll(board);
+            int bounds = combinations[moves.nextInt(combinations.length)];
+            assertTrue(state.regenerate(bounds));
+
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    boolean inside = x >= Bounds.minX(bounds) && x <= Bounds.maxX(bounds)
+                            && y >= Bounds.minY(bounds) && y <= Bounds.maxY(bounds);
+                    if (!inside && board.getColorIndex(x, y) != before[x][y]) {
+                        assertTrue("move " + move, isRepainted(board, Coordinate.pack(x, y)));
+                    }
+                }
+            }
+            for (int i = 0; i < board.getRepaintedCount(); i++) {
+                int x = Coordinate.unpackX(board.getRepainted(i));
+                int y = Coordinate.unpackY(board.getRepainted(i));
+                assertFalse(x >= Bounds.minX(bounds) && x <= Bounds.maxX(bounds)
+                        && y >= Bounds.minY(bounds) && y <= Bounds.maxY(bounds));
+            }
+            repainted += board.getRepaintedCount();
+        }
+        assertTrue(repainted > 0);
+    }
+
+    @Test
+    public void excludedTwoByTwoBoardCannotBeGenerated() {
+        Board board = new Board(2, new RandomSource(5));
+        GenerationConstraints constraints = new GenerationConstraints().excluding(Bounds.pack(0, 0, 1, 1));
+        assertFalse(board.randomize(Bounds.pack(0, 0, 1, 1), constraints));
+        assertEquals(0, board.getRepaintedCount());
+    }
+
+    private static boolean isRepainted(Board board, int coordinate) {
+        for (int i = 0; i < board.getRepaintedCount(); i++) {
+            if (board.getRepainted(i) == coordinate) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
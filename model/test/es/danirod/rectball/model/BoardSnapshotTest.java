@@ -0,0 +1,66 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class BoardSnapshotTest {
+
+    private static Board createBoard(int size, long seed) {
+        RandomSource random = new RandomSource(seed);
+        Board board = new Board(size);
+        for (int x = 0; x < size; x++)
+            for (int y = 0; y < size; y++)
+                board.setColorIndex(x, y, random.nextInt(board.getColorCount()));
+        return board;
+    }
+
+    @Test
+    public void boardsSurviveRoundTrip() {
+        for (int size : new int[] { 1, 2, 6, 63, 64, 65, 256 }) {
+            Board board = createBoard(size, size);
+            byte[] snapshot = BoardSnapshot.encode(board);
+            assertEquals(BoardSnapshot.getLength(size), snapshot.length);
+            Board decoded = BoardSnapshot.decode(snapshot);
+            assertTrue(decoded.hasMasks(board.copyMasks()));
+        }
+    }
+
+    @Test
+    public void emptyCellLeavesTheBufferUntouched() {
+        for (int size : new int[] { 1, 6, 65 }) {
+            Board board = createBoard(size, 1);
+            board.setColorIndex(size - 1, size - 1, -1);
+            ByteBuffer buffer = ByteBuffer.allocate(BoardSnapshot.getLength(size) + 4);
+            buffer.put((byte) 7);
+            try {
+                BoardSnapshot.encode(board, buffer);
+                fail("A board with an empty cell was encoded");
+            } catch (IllegalArgumentException e) {
+                assertEquals(1, buffer.position());
+                for (int i = 1; i < buffer.capacity(); i++) {
+                    assertEquals(0, buffer.get(i));
+                }
+            }
+        }
+    }
+}
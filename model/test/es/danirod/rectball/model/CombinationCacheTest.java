@@ -0,0 +1,94 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CombinationCacheTest {
+
+    private static Board createBoard(long seed) {
+        Board board = new Board(6, new RandomSource(seed));
+        board.randomize();
+        return board;
+    }
+
+    @Test
+    public void repeatedBoardIsAHit() {
+        CombinationCache cache = new CombinationCache(4);
+        Board board = createBoard(1);
+        CombinationCache.Summary first = cache.get(board);
+        CombinationCache.Summary second = cache.get(board);
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertArrayEquals(CombinationFinder.findAll(board), first.getCombinations());
+        assertEquals(CombinationFinder.bestCombination(board), first.getBestCombination());
+    }
+
+    @Test
+    public void equalBoardsShareTheSummary() {
+        CombinationCache cache = new CombinationCache(4);
+        Board board = createBoard(1);
+        Board copy = new Board(6);
+        for (int x = 0; x < 6; x++)
+            for (int y = 0; y < 6; y++)
+                copy.setColorIndex(x, y, board.getColorIndex(x, y));
+        assertSame(cache.get(board), cache.get(copy));
+    }
+
+    @Test
+    public void leastRecentlyUsedBoardIsEvicted() {
+        CombinationCache cache = new CombinationCache(2);
+        Board first = createBoard(1), second = createBoard(2), third = createBoard(3);
+        cache.get(first);
+        cache.get(second);
+        cache.get(first);
+        cache.get(third);
+        assertEquals(2, cache.size());
+
+        // The second board was the least recently used one.
+        long misses = cache.getMisses();
+        cache.get(first);
+        cache.get(third);
+        assertEquals(misses, cache.getMisses());
+        cache.get(second);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    public void hashCollisionIsNotAHit() {
+        CombinationCache cache = new CombinationCache(4);
+        Board board = createBoard(1), other = createBoard(2);
+        CombinationCache.Summary first = cache.get(board, 42);
+        CombinationCache.Summary second = cache.get(other, 42);
+        assertNotSame(first, second);
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertArrayEquals(CombinationFinder.findAll(other), second.getCombinations());
+    }
+
+    @Test
+    public void clearForgetsEveryBoard() {
+        CombinationCache cache = new CombinationCache(4);
+        cache.get(createBoard(1));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
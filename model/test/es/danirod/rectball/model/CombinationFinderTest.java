@@ -0,0 +1,69 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CombinationFinderTest {
+
+    private Board createBoard() {
+        Board board = new Board(6, new RandomSource(3));
+        board.randomize();
+        return board;
+    }
+
+    @Test
+    public void noBestCombinationsAreRequested() {
+        Board board = createBoard();
+        assertEquals(0, CombinationFinder.bestCombinations(board, 0).length);
+        assertEquals(0, new CombinationFinder(board).bestCombinations(0).size());
+    }
+
+    @Test
+    public void negativeCountGivesNoBestCombinations() {
+        Board board = createBoard();
+        assertEquals(0, CombinationFinder.bestCombinations(board, -1).length);
+        assertEquals(0, new CombinationFinder(board).bestCombinations(-5).size());
+    }
+
+    @Test
+    public void firstBestCombinationIsTheBiggest() {
+        Board board = createBoard();
+        int[] best = CombinationFinder.bestCombinations(board, 1);
+        assertEquals(1, best.length);
+        assertEquals(GameRules.getScore(CombinationFinder.bestCombination(board)), GameRules.getScore(best[0]));
+    }
+
+    @Test
+    public void possibleBoundsFollowTheBoard() {
+        Board board = new Board(2);
+        board.setColor(0, 0, BallColor.RED);
+        board.setColor(1, 0, BallColor.RED);
+        board.setColor(0, 1, BallColor.RED);
+        board.setColor(1, 1, BallColor.BLUE);
+        CombinationFinder finder = new CombinationFinder(board);
+        assertTrue(finder.getPossibleBounds().isEmpty());
+
+        board.setColor(1, 1, BallColor.RED);
+        assertEquals(1, finder.getPossibleBounds().size());
+        assertEquals(finder.getCombination(), finder.getPossibleBounds().get(0));
+    }
+}
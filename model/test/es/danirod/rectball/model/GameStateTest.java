@@ -17,28 +17,23 @@
  */
 package es.danirod.rectball.model;
 
-import com.badlogic.gdx.graphics.Color;
+import org.junit.Test;
 
-/**
- * Enumerated type for representing the colors balls can have. This enumared
- * type is also responsible for getting the texture region of a sheet for
- * representing that color on the screen.
- *
- * @author danirod
- */
-public enum BallColor {
-    BLUE(Color.BLUE),
-    GREEN(Color.GREEN),
-    RED(Color.RED),
-    YELLOW(Color.YELLOW);
+import static org.junit.Assert.assertTrue;
 
-    private Color color;
+public class GameStateTest {
 
-    BallColor(Color color) {
-        this.color = color;
+    @Test(expected = IllegalArgumentException.class)
+    public void boardsSmallerThanTwoAreRejected() {
+        new GameState(1, new RandomSource(1));
     }
 
-    public Color getColor() {
-        return color;
+    @Test
+    public void smallestBoardCanBeReset() {
+        GameState state = new GameState(2, new RandomSource(1));
+        for (int i = 0; i < 1000; i++) {
+            state.reset();
+            assertTrue(CombinationFinder.hasAnyCombination(state.getBoard()));
+        }
     }
 }
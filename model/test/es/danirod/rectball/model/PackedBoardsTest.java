@@ -0,0 +1,190 @@
+/*
+ * This file is part of Rectball.
+ * Copyright (C) 2015 Dani Rodríguez.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package es.danirod.rectball.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PackedBoardsTest {
+
+    /** Sizes whose cells end right before, at and after word boundaries. */
+    private static final int[] SIZES = { 1, 31, 32, 33, 64, 65, 256 };
+
+    private static Board createBoard(int size, long seed) {
+        RandomSource random = new RandomSource(seed);
+        Board board = new Board(size);
+        for (int x = 0; x < size; x++)
+            for (int y = 0; y < size; y++)
+                board.setColorIndex(x, y, random.nextInt(board.getColorCount()));
+        return board;
+    }
+
+    private static void assertSameColors(Board expected, Board actual) {
+        for (int x = 0; x < expected.getSize(); x++)
+            for (int y = 0; y < expected.getSize(); y++)
+                assertEquals("cell " + x + ", " + y, expected.getColorIndex(x, y), actual.getColorIndex(x, y));
+    }
+
+    @Test
+    public void boardsSurviveRoundTrip() {
+        for (int size : SIZES) {
+            PackedBoards boards = new PackedBoards(size);
+            Board first = createBoard(size, 1), second = createBoard(size, 2);
+            assertEquals(0, boards.add(first));
+            assertEquals(1, boards.add(second));
+
+            Board copy = new Board(size);
+            boards.get(0, copy);
+            assertSameColors(first, copy);
+            boards.get(1, copy);
+            assertSameColors(second, copy);
+            assertEquals(copy.getHash(), second.getHash());
+        }
+    }
+
+    @Test
+    public void setReplacesOnlyThatBoard() {
+        for (int size : SIZES) {
+            PackedBoards boards = new PackedBoards(size);
+            Board first = createBoard(size, 1), second = createBoard(size, 2), third = createBoard(size, 3);
+            boards.add(first);
+            boards.add(second);
+            boards.add(first);
+            boards.set(1, third);
+
+            Board copy = new Board(size);
+            boards.get(0, copy);
+            assertSameColors(first, copy);
+            boards.get(1, copy);
+            assertSameColors(third, copy);
+            boards.get(2, copy);
+            assertSameColors(first, copy);
+        }
+    }
+
+    @Test
+    public void viewReadsAndWritesInPlace() {
+        for (int size : SIZES) {
+            PackedBoards boards = new PackedBoards(size);
+            Board first = createBoard(size, 1), second = createBoard(size, 2);
+            boards.add(first);
+            boards.add(second);
+
+            PackedBoards.View view = boards.view(0);
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    assertEquals(first.getColorIndex(x, y), view.getColorIndex(x, y));
+                    assertEquals(first.getColor(x, y), view.getColor(x, y));
+                }
+            }
+
+            // Write through the view, then check that the neighbour board
+            // didn't change, including the cells sharing its first word.
+            view.moveTo(1);
+            assertEquals(1, view.getIndex());
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    int color = (second.getColorIndex(x, y) + 1) % second.getColorCount();
+                    view.setColorIndex(x, y, color);
+                    second.setColorIndex(x, y, color);
+                }
+            }
+            Board copy = new Board(size);
+            view.copyTo(copy);
+            assertSameColors(second, copy);
+            boards.get(0, copy);
+            assertSameColors(first, copy);
+            assertEquals(second.getColorIndex(size - 1, size - 1), boards.getColorIndex(1, size - 1, size - 1));
+        }
+    }
+
+    @Test
+    public void storageGrowsKeepingTheBoards() {
+        for (int size : SIZES) {
+            int count = size > 64 ? 20 : 100;
+            PackedBoards boards = new PackedBoards(size, 0);
+            assertEquals(0, boards.getCapacity());
+            for (int i = 0; i < count; i++) {
+                boards.add(createBoard(size, i));
+            }
+            assertEquals(count, boards.getCount());
+            assertTrue(boards.getCapacity() >= count);
+
+            boards.ensureCapacity(count * 3);
+            assertTrue(boards.getCapacity() >= count * 3);
+            Board copy = new Board(size);
+            for (int i = 0; i < count; i++) {
+                boards.get(i, copy);
+                assertSameColors(createBoard(size, i), copy);
+            }
+        }
+    }
+
+    @Test
+    public void ensureCapacityNeverShrinks() {
+        PackedBoards boards = new PackedBoards(6, 10);
+        boards.ensureCapacity(2);
+        assertEquals(10, boards.getCapacity());
+    }
+
+    @Test
+    public void clearKeepsTheMemory() {
+        PackedBoards boards = new PackedBoards(6, 4);
+        boards.add(createBoard(6, 1));
+        boards.clear();
+        assertEquals(0, boards.getCount());
+        assertEquals(4, boards.getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyCellsAreRejected() {
+        new PackedBoards(6).add(new Board(6));
+    }
+
+    @Test
+    public void emptyCellsDontOverwriteAStoredBoard() {
+        PackedBoards boards = new PackedBoards(6);
+        Board board = createBoard(6, 1);
+        boards.add(board);
+        Board broken = createBoard(6, 2);
+        broken.setColorIndex(5, 5, -1);
+        try {
+            boards.set(0, broken);
+            fail("A board with an empty cell was stored");
+        } catch (IllegalArgumentException e) {
+            Board copy = new Board(6);
+            boards.get(0, copy);
+            assertSameColors(board, copy);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void viewOfMissingBoardIsRejected() {
+        PackedBoards boards = new PackedBoards(6);
+        boards.add(createBoard(6, 1));
+        boards.view(0).moveTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidColorsAreRejected() {
+        PackedBoards boards = new PackedBoards(6);
+        boards.add(createBoard(6, 1));
+        boards.setColorIndex(0, 0, 0, ColorPacking.COLORS);
+    }
+}